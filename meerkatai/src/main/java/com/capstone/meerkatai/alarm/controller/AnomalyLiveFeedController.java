@@ -0,0 +1,58 @@
+package com.capstone.meerkatai.alarm.controller;
+
+import com.capstone.meerkatai.alarm.service.AnomalyLiveFeedService;
+import com.capstone.meerkatai.common.exception.ResourceNotFoundException;
+import com.capstone.meerkatai.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api/v1/anomalies")
+@RequiredArgsConstructor
+public class AnomalyLiveFeedController {
+
+    private final AnomalyLiveFeedService anomalyLiveFeedService;
+    private final UserRepository userRepository;
+
+    /**
+     * 로그인한 사용자의 실시간 이상행동 피드 (Server-Sent Events)
+     * GET : http://localhost:8080/api/v1/anomalies/live
+     * GET : http://localhost:8080/api/v1/anomalies/live?token={JWT} (브라우저 EventSource용)
+     * <p>
+     * 브라우저 EventSource는 Authorization 헤더를 보낼 수 없으므로 이 경로에 한해
+     * token 쿼리 파라미터로도 인증합니다. 헤더가 있으면 헤더가 우선합니다.
+     * </p>
+     * <p>
+     * 이벤트 종류
+     * - anomaly: 새 이상행동 (id = anomalyId)
+     * - overflow: 연결이 느려 버려진 이벤트 수 (목록을 다시 조회해야 함)
+     * 하트비트는 SSE 주석으로 전송되며, 연결이 끊기면 EventSource가 자동으로 재연결합니다.
+     * 사용자당 최대 연결 수를 넘으면 429를 반환합니다.
+     * </p>
+     */
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<Object>>> liveFeed() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String email = authentication.getName();
+        Long userId = userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email))
+                .getUserId();
+
+        if (!anomalyLiveFeedService.canConnect(userId)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "10")
+                    .build();
+        }
+        return ResponseEntity.ok(anomalyLiveFeedService.subscribe(userId));
+    }
+}
@@ -1,42 +1,46 @@
 package com.capstone.meerkatai.alarm.controller;
 
+import com.capstone.meerkatai.alarm.dto.AnomalyBatchItemResult;
 import com.capstone.meerkatai.alarm.dto.AnomalyVideoMetadataRequest;
 import com.capstone.meerkatai.alarm.dto.UserNotificationUpdateRequest;
-import com.capstone.meerkatai.alarm.service.EmailService;
-import com.capstone.meerkatai.user.entity.User;
-import com.capstone.meerkatai.anomalybehavior.entity.AnomalyBehavior;
-import com.capstone.meerkatai.anomalybehavior.service.AnomalyBehaviorService;
+import com.capstone.meerkatai.alarm.service.AnomalyEventQueueService;
 import com.capstone.meerkatai.common.dto.ApiResponse;
 import com.capstone.meerkatai.common.exception.ResourceNotFoundException;
-import com.capstone.meerkatai.dashboard.service.DashboardService;
 import com.capstone.meerkatai.global.service.S3Service;
-import com.capstone.meerkatai.storagespace.service.StorageSpaceService;
+import com.capstone.meerkatai.user.entity.User;
 import com.capstone.meerkatai.user.repository.UserRepository;
 import com.capstone.meerkatai.user.service.UserService;
-import com.capstone.meerkatai.video.service.VideoService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Slf4j
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
 public class AnomalyWebhookController {
 
-    private final EmailService emailService;
-    private final AnomalyBehaviorService anomalyBehaviorService;
-    private final VideoService videoService;
-    private final DashboardService dashboardService;
-    private final StorageSpaceService storageSpaceService;
+    private final AnomalyEventQueueService anomalyEventQueueService;
     private final UserService userService;
     private final UserRepository userRepository;
     private final S3Service s3Service;
 
+    // 일괄 Webhook 최대 항목 수 (초과 시 413)
+    @Value("${anomaly.webhook.max-batch-size:100}")
+    private int maxBatchSize;
+
     /**
      * ✅ 현재 로그인된 사용자 ID 추출
      */
@@ -52,21 +56,25 @@ public class AnomalyWebhookController {
     /**
      * FastAPI로부터 이상행동 감지 데이터를 수신하는 Webhook 엔드포인트
      * POST : http://localhost:8080/api/anomaly/notify
-     * 
+     * <p>
+     * 요청을 검증한 뒤 이벤트 큐(anomaly_event)에 저장하고 바로 202 Accepted를 반환합니다.
+     * DB 저장, 대시보드/저장공간 갱신, 이메일 발송은 {@link AnomalyEventQueueService} 워커가
+     * 재시도와 함께 비동기로 처리하므로 메일 서버나 S3 지연이 감지 서버를 막지 않습니다.
+     * </p>
+     *
      * @param request 이상행동 비디오 메타데이터 요청 객체
-     * @return 처리 결과를 담은 ApiResponse
+     * @return 접수 결과를 담은 ApiResponse (data: 이벤트 ID)
      */
     @PostMapping("/anomaly/notify")
-    public ResponseEntity<ApiResponse<String>> handleWebhook(@RequestBody AnomalyVideoMetadataRequest request) {
+    public ResponseEntity<ApiResponse<Long>> handleWebhook(@RequestBody AnomalyVideoMetadataRequest request) {
         log.info("이상 행동 감지 데이터 수신: {}", request);
         
         try {
             // 필수 필드 검증
             validateRequest(request);
             
-            // 0. 사용자 정보 조회
-            User user = userService.getUserById(request.getUserId());
-            if (user == null) {
+            // 0. 사용자 존재 여부 확인
+            if (!userRepository.existsById(request.getUserId())) {
                 log.error("사용자 ID를 찾을 수 없음: {}", request.getUserId());
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(ApiResponse.error("User not found with id: " + request.getUserId()));
@@ -81,62 +89,110 @@ public class AnomalyWebhookController {
                 log.warn("S3 썸네일 URL 형식이 올바르지 않습니다: {}", request.getThumbnailUrl());
             }
 
-            //FastAPI에서 받은 메타데이터 이용해서 DB 저장 및 갱신
-            try {
-                // 1. 이상행동 DB 저장
-                AnomalyBehavior savedBehavior = anomalyBehaviorService.saveAnomalyBehavior(request);
-                log.info("이상행동 저장 완료: behaviorId={}", savedBehavior.getAnomalyId());
-
-                // 2. 비디오 DB 저장
-                videoService.saveVideo(request, savedBehavior);
-                log.info("비디오 저장 완료");
-
-                //3. 대시보드 DB 저장 OR 갱신
-                dashboardService.updateDashboardWithAnomaly(request);
-                log.info("대시보드 업데이트 완료");
-
-                //4. 저장공간 DB 갱신
-                storageSpaceService.updateUsedSpace(request);
-                log.info("저장공간 업데이트 완료");
-            } catch (Exception e) {
-                log.error("데이터 처리 중 오류 발생", e);
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body(ApiResponse.error("데이터 저장 중 오류 발생: " + e.getMessage()));
-            }
+            // 이벤트 큐에 저장 후 즉시 응답
+            Long eventId = anomalyEventQueueService.enqueue(request);
+            log.info("이상행동 이벤트 접수 완료: eventId={}", eventId);
 
-            // ✅ notification 여부 확인 후 이메일 전송
-            if (!user.isNotification()) {
-                log.info("사용자 알림 설정이 비활성화됨: userId={}", user.getUserId());
-                return ResponseEntity.ok(ApiResponse.success("Notification is disabled for this user"));
-            }
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success(eventId, "이상행동 데이터가 접수되었습니다."));
+        } catch (IllegalArgumentException e) {
+            log.error("요청 데이터 검증 실패", e);
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalStateException e) {
+            // 대기열 포화 - 감지 서버가 잠시 후 재전송하도록 503 반환
+            log.warn("이상행동 이벤트 대기열 포화: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            log.error("알 수 없는 오류 발생", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("요청 처리 중 오류가 발생했습니다: " + e.getMessage()));
+        }
+    }
 
-            // 이메일 발송
+    /**
+     * 여러 건의 이상행동 감지 데이터를 한 번에 수신하는 Webhook 엔드포인트
+     * POST : http://localhost:8080/api/anomaly/notify/batch
+     * <p>
+     * 항목별로 검증한 뒤 통과한 항목만 한 번의 배치 INSERT로 이벤트 큐에 저장합니다.
+     * 일부 항목이 잘못되어도 나머지는 접수되며, 결과는 요청 순서대로 항목별로 반환됩니다.
+     * 항목 수가 anomaly.webhook.max-batch-size를 넘으면 조회나 검증 없이 413을 반환합니다.
+     * </p>
+     *
+     * @param requests 이상행동 비디오 메타데이터 요청 목록
+     * @return 항목별 접수 결과를 담은 ApiResponse
+     */
+    @PostMapping("/anomaly/notify/batch")
+    public ResponseEntity<ApiResponse<List<AnomalyBatchItemResult>>> handleWebhookBatch(
+            @RequestBody List<AnomalyVideoMetadataRequest> requests) {
+        log.info("이상 행동 감지 데이터 일괄 수신: size={}", requests.size());
+
+        if (requests.size() > maxBatchSize) {
+            log.warn("일괄 Webhook 항목 수 초과: size={}, max={}", requests.size(), maxBatchSize);
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(ApiResponse.error("한 번에 보낼 수 있는 항목은 최대 " + maxBatchSize + "건입니다."));
+        }
+
+        // 사용자 존재 여부는 한 번의 조회로 확인
+        Set<Long> existingUserIds = userRepository.findAllById(requests.stream()
+                        .filter(Objects::nonNull)
+                        .map(AnomalyVideoMetadataRequest::getUserId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .map(User::getUserId)
+                .collect(Collectors.toSet());
+
+        AnomalyBatchItemResult[] results = new AnomalyBatchItemResult[requests.size()];
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<AnomalyVideoMetadataRequest> accepted = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            AnomalyVideoMetadataRequest request = requests.get(i);
             try {
-                String result = emailService.processAndSendAnomalyEmail(request);
-                
-                // 응답 분기
-                if ("Failed to send email".equals(result)) {
-                    log.error("이메일 발송 실패");
-                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                            .body(ApiResponse.error("이메일 발송 중 오류가 발생했습니다."));
-                } else {
-                    log.info("이메일 발송 성공: userId={}, email={}", user.getUserId(), user.getEmail());
-                    return ResponseEntity.ok(ApiResponse.success("이상행동 데이터가 성공적으로 처리되었으며 이메일 알림이 발송되었습니다."));
+                if (request == null) {
+                    throw new IllegalArgumentException("요청 항목이 비어 있습니다.");
+                }
+                validateRequest(request);
+                if (!existingUserIds.contains(request.getUserId())) {
+                    throw new IllegalArgumentException("User not found with id: " + request.getUserId());
                 }
-            } catch (Exception e) {
-                log.error("이메일 발송 중 오류 발생", e);
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body(ApiResponse.error("이메일 발송 중 오류 발생: " + e.getMessage()));
+                if (!s3Service.isS3Url(request.getVideoUrl())) {
+                    log.warn("S3 비디오 URL 형식이 올바르지 않습니다: index={}, url={}", i, request.getVideoUrl());
+                }
+                acceptedIndexes.add(i);
+                accepted.add(request);
+            } catch (IllegalArgumentException e) {
+                log.warn("요청 항목 검증 실패: index={}, reason={}", i, e.getMessage());
+                results[i] = AnomalyBatchItemResult.rejected(i, e.getMessage());
             }
-        } catch (IllegalArgumentException e) {
-            log.error("요청 데이터 검증 실패", e);
-            return ResponseEntity.badRequest()
+        }
+
+        try {
+            List<Long> eventIds = anomalyEventQueueService.enqueueAll(accepted);
+            for (int k = 0; k < eventIds.size(); k++) {
+                int index = acceptedIndexes.get(k);
+                results[index] = AnomalyBatchItemResult.accepted(index, eventIds.get(k));
+            }
+        } catch (IllegalStateException e) {
+            // 대기열 포화 - 묶음 전체를 잠시 후 재전송하도록 503 반환
+            log.warn("이상행동 이벤트 대기열 포화: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
                     .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             log.error("알 수 없는 오류 발생", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("요청 처리 중 오류가 발생했습니다: " + e.getMessage()));
         }
+
+        log.info("이상행동 이벤트 일괄 접수 완료: accepted={}, rejected={}",
+                accepted.size(), requests.size() - accepted.size());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(List.of(results),
+                        accepted.size() + "/" + requests.size() + "건의 이상행동 데이터가 접수되었습니다."));
     }
 
     /**
@@ -0,0 +1,34 @@
+package com.capstone.meerkatai.alarm.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 일괄 Webhook 요청의 항목별 처리 결과
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AnomalyBatchItemResult {
+
+    // 요청 배열에서의 위치 (0부터 시작)
+    private int index;
+
+    // accepted 또는 rejected
+    private String status;
+
+    @JsonProperty("event_id")
+    private Long eventId;
+
+    private String message;
+
+    public static AnomalyBatchItemResult accepted(int index, Long eventId) {
+        return new AnomalyBatchItemResult(index, "accepted", eventId, null);
+    }
+
+    public static AnomalyBatchItemResult rejected(int index, String message) {
+        return new AnomalyBatchItemResult(index, "rejected", null, message);
+    }
+}
@@ -0,0 +1,39 @@
+package com.capstone.meerkatai.alarm.dto;
+
+import com.capstone.meerkatai.anomalybehavior.entity.AnomalyBehavior;
+import com.capstone.meerkatai.cctv.entity.Cctv;
+
+import java.time.LocalDateTime;
+
+/**
+ * 실시간 이상행동 피드(SSE)로 전달하는 이벤트
+ * <p>
+ * 알림 표시에 필요한 최소 정보만 담으며, 영상/썸네일 링크는 클라이언트가
+ * anomalyId로 상세 조회해 받습니다.
+ * </p>
+ *
+ * @param anomalyId 이상행동 ID
+ * @param anomalyTypeCode 표준 유형 코드 (1~7, 분류 불가면 null)
+ * @param anomalyBehaviorType 이상행동 유형 (탐지 서버가 보낸 원문)
+ * @param anomalyTime 이상행동 발생 시간
+ * @param cctvId CCTV ID
+ */
+public record AnomalyLiveEvent(
+        Long anomalyId,
+        Integer anomalyTypeCode,
+        String anomalyBehaviorType,
+        LocalDateTime anomalyTime,
+        Long cctvId
+) {
+
+    public static AnomalyLiveEvent from(AnomalyBehavior behavior) {
+        Cctv cctv = behavior.getStreamingVideo() != null ? behavior.getStreamingVideo().getCctv() : null;
+        return new AnomalyLiveEvent(
+                behavior.getAnomalyId(),
+                behavior.getAnomalyTypeCode(),
+                behavior.getAnomalyBehaviorType(),
+                behavior.getAnomalyTime(),
+                cctv != null ? cctv.getCctvId() : null
+        );
+    }
+}
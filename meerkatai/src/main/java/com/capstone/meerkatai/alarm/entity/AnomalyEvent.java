@@ -0,0 +1,69 @@
+package com.capstone.meerkatai.alarm.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * FastAPI Webhook으로 수신한 이상행동 이벤트를 보관하는 큐 테이블입니다.
+ * <p>
+ * Webhook 요청은 이 테이블에 원본 요청(JSON)을 저장한 뒤 바로 응답하며,
+ * 실제 DB 저장과 알림 발송은 워커가 이 테이블을 읽어 단계별로 처리합니다.
+ * lockedUntil은 처리 중인 워커의 임대(lease) 만료 시각으로, 워커가 중단되더라도
+ * 만료 후 다른 워커가 다시 가져갈 수 있습니다.
+ * </p>
+ */
+@Entity
+@Getter @Setter @NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "anomaly_event", indexes = {
+        @Index(name = "idx_anomaly_event_stage_next", columnList = "stage, next_attempt_at")
+})
+public class AnomalyEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long eventId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AnomalyEventStage stage;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime lockedUntil;
+
+    // 일괄 처리 시 어떤 워커가 점유했는지 구분하는 임대 토큰
+    @Column(length = 36)
+    private String leaseToken;
+
+    @Column(length = 500)
+    private String lastError;
+
+    // PERSIST 단계 완료 후 저장된 이상행동 ID
+    private Long anomalyId;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    public void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,12 @@
+package com.capstone.meerkatai.alarm.entity;
+
+/**
+ * 이상행동 Webhook 이벤트 처리 단계
+ * <p>
+ * PERSIST(DB 저장 대기) → NOTIFY(알림 발송 대기) → DONE(완료) 순서로 진행되며,
+ * 재시도 횟수를 모두 소진하면 FAILED로 남습니다.
+ * </p>
+ */
+public enum AnomalyEventStage {
+    PERSIST, NOTIFY, DONE, FAILED
+}
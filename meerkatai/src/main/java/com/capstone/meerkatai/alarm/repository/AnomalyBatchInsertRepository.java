@@ -0,0 +1,148 @@
+package com.capstone.meerkatai.alarm.repository;
+
+import com.capstone.meerkatai.alarm.entity.AnomalyEventStage;
+import com.capstone.meerkatai.anomalybehavior.entity.AnomalyBehavior;
+import com.capstone.meerkatai.video.entity.Video;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 이상행동 수집 경로의 대량 INSERT를 JDBC 배치로 처리하는 레포지토리입니다.
+ * <p>
+ * 엔티티들은 IDENTITY 키 전략을 사용하므로 Hibernate가 INSERT를 배치로 묶지 못합니다.
+ * 이 클래스는 JdbcTemplate 배치 + 생성 키 반환을 사용해 한 번의 왕복으로 여러 행을 저장하고,
+ * 생성된 ID를 다시 엔티티에 채워 넣습니다. (MySQL은 rewriteBatchedStatements=true 설정 시
+ * 다중 VALUES INSERT 한 문장으로 전송)
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnomalyBatchInsertRepository {
+
+    // 한 번의 executeBatch로 보낼 최대 행 수 (max_allowed_packet 보호)
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO anomaly_event (payload, stage, attempts, next_attempt_at, created_at, updated_at) " +
+            "VALUES (?, ?, 0, ?, ?, ?)";
+
+    private static final String INSERT_ANOMALY_SQL =
+            "INSERT INTO anomaly_behavior (anomaly_behavior_type, anomaly_time, anomaly_video_link, " +
+            "anomaly_thumbnail_link, streaming_video_id, user_id, anomaly_type_code) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_VIDEO_SQL =
+            "INSERT INTO video (file_path, thumbnail_path, duration, file_size, video_status, processing, " +
+            "streaming_video_id, user_id, anomaly_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Webhook 이벤트(PERSIST 단계)를 일괄 저장합니다.
+     *
+     * @param payloads 이벤트 원본 JSON 목록
+     * @return 입력 순서와 같은 순서의 이벤트 ID 목록
+     */
+    public List<Long> insertEvents(List<String> payloads) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return batchInsert(INSERT_EVENT_SQL, payloads.size(), (ps, i) -> {
+            ps.setString(1, payloads.get(i));
+            ps.setString(2, AnomalyEventStage.PERSIST.name());
+            ps.setTimestamp(3, now);
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+        });
+    }
+
+    /**
+     * 이상행동을 일괄 저장하고 생성된 anomalyId를 각 엔티티에 설정합니다.
+     */
+    public void insertAnomalyBehaviors(List<AnomalyBehavior> behaviors) {
+        List<Long> ids = batchInsert(INSERT_ANOMALY_SQL, behaviors.size(), (ps, i) -> {
+            AnomalyBehavior behavior = behaviors.get(i);
+            ps.setString(1, behavior.getAnomalyBehaviorType());
+            ps.setTimestamp(2, Timestamp.valueOf(behavior.getAnomalyTime()));
+            ps.setString(3, behavior.getAnomalyVideoLink());
+            ps.setString(4, behavior.getAnomalyThumbnailLink());
+            ps.setLong(5, behavior.getStreamingVideo().getStreamingVideoId());
+            ps.setLong(6, behavior.getUser().getUserId());
+            ps.setObject(7, behavior.getAnomalyTypeCode(), Types.INTEGER);
+        });
+        for (int i = 0; i < behaviors.size(); i++) {
+            behaviors.get(i).setAnomalyId(ids.get(i));
+        }
+    }
+
+    /**
+     * 비디오를 일괄 저장하고 생성된 videoId를 각 엔티티에 설정합니다.
+     */
+    public void insertVideos(List<Video> videos) {
+        List<Long> ids = batchInsert(INSERT_VIDEO_SQL, videos.size(), (ps, i) -> {
+            Video video = videos.get(i);
+            ps.setString(1, video.getFilePath());
+            ps.setString(2, video.getThumbnailPath());
+            ps.setLong(3, video.getDuration());
+            ps.setLong(4, video.getFileSize());
+            ps.setBoolean(5, video.getVideoStatus());
+            ps.setBoolean(6, Boolean.TRUE.equals(video.getProcessing()));
+            ps.setLong(7, video.getStreamingVideo().getStreamingVideoId());
+            ps.setLong(8, video.getUser().getUserId());
+            ps.setLong(9, video.getAnomalyBehavior().getAnomalyId());
+        });
+        for (int i = 0; i < videos.size(); i++) {
+            videos.get(i).setVideoId(ids.get(i));
+        }
+    }
+
+    private List<Long> batchInsert(String sql, int size, RowSetter setter) {
+        List<Long> ids = new ArrayList<>(size);
+
+        for (int from = 0; from < size; from += CHUNK_SIZE) {
+            int offset = from;
+            int count = Math.min(CHUNK_SIZE, size - from);
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+
+            jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            setter.set(ps, offset + i);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return count;
+                        }
+                    },
+                    keyHolder);
+
+            for (Map<String, Object> keys : keyHolder.getKeyList()) {
+                ids.add(((Number) keys.values().iterator().next()).longValue());
+            }
+        }
+
+        if (ids.size() != size) {
+            throw new IllegalStateException("생성 키 개수가 일치하지 않습니다: expected=" + size + ", actual=" + ids.size());
+        }
+        return ids;
+    }
+
+    @FunctionalInterface
+    private interface RowSetter {
+        void set(PreparedStatement ps, int index) throws SQLException;
+    }
+}
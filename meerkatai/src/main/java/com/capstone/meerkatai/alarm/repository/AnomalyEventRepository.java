@@ -0,0 +1,50 @@
+package com.capstone.meerkatai.alarm.repository;
+
+import com.capstone.meerkatai.alarm.entity.AnomalyEvent;
+import com.capstone.meerkatai.alarm.entity.AnomalyEventStage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface AnomalyEventRepository extends JpaRepository<AnomalyEvent, Long> {
+
+    // 처리 가능한 이벤트 조회 (재시도 시각 도래 + 임대 없음 또는 만료)
+    @Query("SELECT e FROM AnomalyEvent e " +
+            "WHERE e.stage IN :stages AND e.nextAttemptAt <= :now " +
+            "AND (e.lockedUntil IS NULL OR e.lockedUntil < :now) " +
+            "ORDER BY e.nextAttemptAt")
+    List<AnomalyEvent> findReady(@Param("stages") Collection<AnomalyEventStage> stages,
+                                 @Param("now") LocalDateTime now,
+                                 Pageable pageable);
+
+    // 이벤트 임대 획득 (다른 워커가 처리 중이면 0 반환)
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE AnomalyEvent e SET e.lockedUntil = :leaseEnd " +
+            "WHERE e.eventId = :eventId AND (e.lockedUntil IS NULL OR e.lockedUntil < :now)")
+    int claim(@Param("eventId") Long eventId,
+              @Param("now") LocalDateTime now,
+              @Param("leaseEnd") LocalDateTime leaseEnd);
+
+    // PERSIST 단계 이벤트 일괄 임대 획득 (획득한 행에는 같은 leaseToken이 기록됨)
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE AnomalyEvent e SET e.lockedUntil = :leaseEnd, e.leaseToken = :leaseToken " +
+            "WHERE e.eventId IN :eventIds AND e.stage = com.capstone.meerkatai.alarm.entity.AnomalyEventStage.PERSIST " +
+            "AND (e.lockedUntil IS NULL OR e.lockedUntil < :now)")
+    int claimAll(@Param("eventIds") Collection<Long> eventIds,
+                 @Param("now") LocalDateTime now,
+                 @Param("leaseEnd") LocalDateTime leaseEnd,
+                 @Param("leaseToken") String leaseToken);
+
+    List<AnomalyEvent> findByLeaseTokenOrderByEventId(String leaseToken);
+
+    long countByStageIn(Collection<AnomalyEventStage> stages);
+}
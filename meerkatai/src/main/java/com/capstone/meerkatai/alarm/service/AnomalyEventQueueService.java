@@ -0,0 +1,492 @@
+package com.capstone.meerkatai.alarm.service;
+
+import com.capstone.meerkatai.alarm.dto.AnomalyVideoMetadataRequest;
+import com.capstone.meerkatai.alarm.entity.AnomalyEvent;
+import com.capstone.meerkatai.alarm.entity.AnomalyEventStage;
+import com.capstone.meerkatai.alarm.repository.AnomalyBatchInsertRepository;
+import com.capstone.meerkatai.alarm.repository.AnomalyEventRepository;
+import com.capstone.meerkatai.anomalybehavior.entity.AnomalyBehavior;
+import com.capstone.meerkatai.anomalybehavior.service.AnomalyBehaviorService;
+import com.capstone.meerkatai.dashboard.service.DashboardService;
+import com.capstone.meerkatai.storagespace.service.StorageSpaceService;
+import com.capstone.meerkatai.streamingvideo.entity.StreamingVideo;
+import com.capstone.meerkatai.user.entity.User;
+import com.capstone.meerkatai.user.repository.UserRepository;
+import com.capstone.meerkatai.user.service.UserService;
+import com.capstone.meerkatai.video.entity.Video;
+import com.capstone.meerkatai.video.service.VideoProbeService;
+import com.capstone.meerkatai.video.service.VideoService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 이상행동 Webhook 이벤트 큐 서비스
+ * <p>
+ * Webhook 요청은 {@link #enqueue}로 anomaly_event 테이블에 저장만 하고 즉시 응답합니다.
+ * 이후 워커 스레드 풀이 이벤트를 가져가 두 단계로 처리합니다.
+ * </p>
+ * <ul>
+ *   <li>PERSIST: 이상행동/비디오/대시보드/저장공간 DB 반영 (하나의 트랜잭션)</li>
+ *   <li>NOTIFY: 사용자 알림 설정 확인 후 이메일 발송</li>
+ * </ul>
+ * <p>
+ * 각 단계는 실패 시 지수 백오프로 재시도되며, PERSIST 단계의 결과와 이벤트 단계 전환이
+ * 같은 트랜잭션으로 커밋되므로 이메일 재시도 때문에 데이터가 중복 저장되지 않습니다.
+ * </p>
+ * <p>
+ * PERSIST 단계는 여러 이벤트를 묶어 한 트랜잭션에서 JDBC 배치 INSERT로 처리하며,
+ * 묶음 처리에 실패하면 이벤트별 처리로 되돌아가 문제 있는 이벤트만 재시도됩니다.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnomalyEventQueueService {
+
+    private static final Set<AnomalyEventStage> ACTIVE_STAGES = EnumSet.of(AnomalyEventStage.PERSIST, AnomalyEventStage.NOTIFY);
+    private static final String EMAIL_FAILED = "Failed to send email";
+
+    private final AnomalyEventRepository anomalyEventRepository;
+    private final AnomalyBatchInsertRepository anomalyBatchInsertRepository;
+    private final AnomalyBehaviorService anomalyBehaviorService;
+    private final VideoService videoService;
+    private final VideoProbeService videoProbeService;
+    private final DashboardService dashboardService;
+    private final StorageSpaceService storageSpaceService;
+    private final EmailService emailService;
+    private final AnomalyLiveFeedService anomalyLiveFeedService;
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${anomaly.queue.worker-threads:4}")
+    private int workerThreads;
+
+    // 워커 스레드 풀 대기열 크기 (가득 차면 폴러가 다음 주기에 다시 가져감)
+    @Value("${anomaly.queue.worker-queue-capacity:100}")
+    private int workerQueueCapacity;
+
+    // 처리 대기 이벤트가 이 값 이상이면 새 Webhook을 503으로 거절
+    @Value("${anomaly.queue.max-pending:10000}")
+    private long maxPending;
+
+    @Value("${anomaly.queue.max-attempts:5}")
+    private int maxAttempts;
+
+    // 워커가 이벤트를 점유하는 시간 (초과 시 다른 워커가 재처리)
+    @Value("${anomaly.queue.lease-seconds:300}")
+    private long leaseSeconds;
+
+    // PERSIST 단계에서 한 트랜잭션으로 묶어 저장할 최대 이벤트 수
+    @Value("${anomaly.queue.batch-size:50}")
+    private int batchSize;
+
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate transactionTemplate;
+    private final AtomicLong queueDepth = new AtomicLong();
+
+    private Counter enqueuedCounter;
+    private Counter completedCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+    private Counter rejectedCounter;
+    private Timer persistTimer;
+    private Timer persistBatchTimer;
+    private Timer notifyTimer;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "anomaly-worker-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("anomaly.queue.depth", queueDepth, AtomicLong::get)
+                .description("처리 대기 중인 이상행동 이벤트 수")
+                .register(meterRegistry);
+        Gauge.builder("anomaly.queue.worker.backlog", executor, e -> e.getQueue().size())
+                .description("워커 스레드 풀 대기열 길이")
+                .register(meterRegistry);
+        enqueuedCounter = meterRegistry.counter("anomaly.queue.events", "result", "enqueued");
+        completedCounter = meterRegistry.counter("anomaly.queue.events", "result", "completed");
+        retriedCounter = meterRegistry.counter("anomaly.queue.events", "result", "retried");
+        failedCounter = meterRegistry.counter("anomaly.queue.events", "result", "failed");
+        rejectedCounter = meterRegistry.counter("anomaly.queue.events", "result", "rejected");
+        persistTimer = meterRegistry.timer("anomaly.queue.stage", "stage", "persist");
+        persistBatchTimer = meterRegistry.timer("anomaly.queue.stage", "stage", "persist-batch");
+        notifyTimer = meterRegistry.timer("anomaly.queue.stage", "stage", "notify");
+
+        queueDepth.set(anomalyEventRepository.countByStageIn(ACTIVE_STAGES));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Webhook 요청을 큐에 저장하고 워커에 처리를 요청합니다.
+     *
+     * @param request 이상행동 비디오 메타데이터 요청 객체
+     * @return 저장된 이벤트 ID
+     * @throws IllegalStateException 대기 이벤트가 너무 많아 새 요청을 받을 수 없는 경우
+     */
+    public Long enqueue(AnomalyVideoMetadataRequest request) {
+        if (queueDepth.get() >= maxPending) {
+            rejectedCounter.increment();
+            throw new IllegalStateException("이상행동 이벤트 대기열이 가득 찼습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("이벤트 직렬화 실패: " + e.getMessage(), e);
+        }
+
+        AnomalyEvent event = anomalyEventRepository.save(AnomalyEvent.builder()
+                .payload(payload)
+                .stage(AnomalyEventStage.PERSIST)
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+
+        queueDepth.incrementAndGet();
+        enqueuedCounter.increment();
+        dispatch(event.getEventId());
+        return event.getEventId();
+    }
+
+    /**
+     * 여러 Webhook 요청을 한 번의 배치 INSERT로 큐에 저장하고 워커에 처리를 요청합니다.
+     *
+     * @param requests 검증을 통과한 이상행동 비디오 메타데이터 요청 목록
+     * @return 요청 순서와 같은 순서의 이벤트 ID 목록
+     * @throws IllegalStateException 대기 이벤트가 너무 많아 새 요청을 받을 수 없는 경우
+     */
+    public List<Long> enqueueAll(List<AnomalyVideoMetadataRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        if (queueDepth.get() + requests.size() > maxPending) {
+            rejectedCounter.increment(requests.size());
+            throw new IllegalStateException("이상행동 이벤트 대기열이 가득 찼습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        List<String> payloads = new ArrayList<>(requests.size());
+        for (AnomalyVideoMetadataRequest request : requests) {
+            try {
+                payloads.add(objectMapper.writeValueAsString(request));
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("이벤트 직렬화 실패: " + e.getMessage(), e);
+            }
+        }
+
+        List<Long> eventIds = anomalyBatchInsertRepository.insertEvents(payloads);
+
+        queueDepth.addAndGet(eventIds.size());
+        enqueuedCounter.increment(eventIds.size());
+        for (int from = 0; from < eventIds.size(); from += batchSize) {
+            List<Long> chunk = eventIds.subList(from, Math.min(from + batchSize, eventIds.size()));
+            if (!dispatchBatch(new ArrayList<>(chunk))) {
+                break;
+            }
+        }
+        return eventIds;
+    }
+
+    /**
+     * 처리 가능한 이벤트를 주기적으로 조회해 워커에 전달합니다.
+     * (즉시 전달에 실패한 이벤트, 재시도 대기 이벤트, 임대가 만료된 이벤트)
+     * PERSIST 단계 이벤트는 batch-size 단위로 묶어 전달합니다.
+     */
+    @Scheduled(fixedDelayString = "${anomaly.queue.poll-interval-ms:1000}")
+    public void poll() {
+        queueDepth.set(anomalyEventRepository.countByStageIn(ACTIVE_STAGES));
+
+        int free = executor.getQueue().remainingCapacity();
+        if (free == 0) {
+            return;
+        }
+
+        List<AnomalyEvent> ready = anomalyEventRepository.findReady(
+                ACTIVE_STAGES, LocalDateTime.now(), PageRequest.of(0, free * batchSize));
+
+        List<Long> persistBatch = new ArrayList<>();
+        for (AnomalyEvent event : ready) {
+            if (event.getStage() == AnomalyEventStage.PERSIST) {
+                persistBatch.add(event.getEventId());
+                if (persistBatch.size() < batchSize) {
+                    continue;
+                }
+                boolean dispatched = dispatchBatch(persistBatch);
+                persistBatch = new ArrayList<>();
+                if (!dispatched) {
+                    return;
+                }
+            } else if (!dispatch(event.getEventId())) {
+                return;
+            }
+        }
+        if (!persistBatch.isEmpty()) {
+            dispatchBatch(persistBatch);
+        }
+    }
+
+    private boolean dispatchBatch(List<Long> eventIds) {
+        if (eventIds.size() == 1) {
+            return dispatch(eventIds.get(0));
+        }
+        try {
+            executor.execute(() -> processPersistBatch(eventIds));
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.debug("워커 대기열 포화, 이벤트 묶음 처리 연기: size={}", eventIds.size());
+            return false;
+        }
+    }
+
+    private boolean dispatch(Long eventId) {
+        try {
+            executor.execute(() -> process(eventId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            // 워커가 모두 바쁜 경우 폴러가 다음 주기에 다시 가져감
+            log.debug("워커 대기열 포화, 이벤트 처리 연기: eventId={}", eventId);
+            return false;
+        }
+    }
+
+    private void process(Long eventId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (anomalyEventRepository.claim(eventId, now, now.plusSeconds(leaseSeconds)) == 0) {
+            return; // 다른 워커가 처리 중
+        }
+        processClaimed(eventId);
+    }
+
+    // 임대를 이미 획득한 이벤트를 현재 단계부터 처리
+    private void processClaimed(Long eventId) {
+        AnomalyEvent event = anomalyEventRepository.findById(eventId).orElse(null);
+        if (event == null || !ACTIVE_STAGES.contains(event.getStage())) {
+            return;
+        }
+
+        try {
+            AnomalyVideoMetadataRequest request = objectMapper.readValue(event.getPayload(), AnomalyVideoMetadataRequest.class);
+
+            if (event.getStage() == AnomalyEventStage.PERSIST) {
+                persistTimer.record(() -> persist(event, request));
+            }
+            if (event.getStage() == AnomalyEventStage.NOTIFY) {
+                notifyTimer.record(() -> notify(event, request));
+            }
+            completedCounter.increment();
+        } catch (Exception e) {
+            handleFailure(eventId, e);
+        }
+    }
+
+    // 1~4. 이상행동, 비디오, 대시보드, 저장공간 DB 반영 + 이벤트 단계 전환을 한 트랜잭션으로 처리
+    private void persist(AnomalyEvent event, AnomalyVideoMetadataRequest request) {
+        transactionTemplate.executeWithoutResult(status -> {
+            AnomalyBehavior savedBehavior = anomalyBehaviorService.saveAnomalyBehavior(request);
+            log.info("이상행동 저장 완료: behaviorId={}", savedBehavior.getAnomalyId());
+
+            Video savedVideo = videoService.saveVideo(request, savedBehavior);
+            log.info("비디오 저장 완료");
+
+            dashboardService.updateDashboardWithAnomaly(savedBehavior);
+            log.info("대시보드 업데이트 완료");
+
+            anomalyLiveFeedService.publishAfterCommit(List.of(savedBehavior));
+
+            storageSpaceService.addUsedSpace(request.getUserId(), savedVideo.getFileSize());
+            log.info("저장공간 업데이트 완료");
+
+            event.setAnomalyId(savedBehavior.getAnomalyId());
+            event.setStage(AnomalyEventStage.NOTIFY);
+            event.setAttempts(0);
+            event.setLastError(null);
+            anomalyEventRepository.save(event);
+        });
+    }
+
+    // PERSIST 단계 이벤트 묶음을 임대하고 한 트랜잭션으로 저장한 뒤, NOTIFY 단계는 이벤트별로 전달
+    private void processPersistBatch(List<Long> eventIds) {
+        LocalDateTime now = LocalDateTime.now();
+        String leaseToken = UUID.randomUUID().toString();
+        if (anomalyEventRepository.claimAll(eventIds, now, now.plusSeconds(leaseSeconds), leaseToken) == 0) {
+            return; // 모두 다른 워커가 처리 중
+        }
+
+        List<AnomalyEvent> events = anomalyEventRepository.findByLeaseTokenOrderByEventId(leaseToken);
+        if (events.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<AnomalyVideoMetadataRequest> requests = new ArrayList<>(events.size());
+            for (AnomalyEvent event : events) {
+                requests.add(objectMapper.readValue(event.getPayload(), AnomalyVideoMetadataRequest.class));
+            }
+            persistBatchTimer.record(() -> persistAll(events, requests));
+        } catch (Exception e) {
+            // 묶음 중 하나라도 실패하면 전체가 롤백되므로 이벤트별로 다시 처리해 실패 건만 재시도 대상으로 남김
+            log.warn("이상행동 이벤트 묶음 저장 실패, 개별 처리로 전환: size={}", events.size(), e);
+            for (AnomalyEvent event : events) {
+                processClaimed(event.getEventId());
+            }
+            return;
+        }
+
+        for (AnomalyEvent event : events) {
+            if (!dispatch(event.getEventId())) {
+                break; // 나머지는 폴러가 NOTIFY 단계로 가져감
+            }
+        }
+    }
+
+    // 1~4단계를 묶음 단위로 처리: 이상행동/비디오는 배치 INSERT, 이벤트는 NOTIFY 단계로 전환 후 임대 해제
+    private void persistAll(List<AnomalyEvent> events, List<AnomalyVideoMetadataRequest> requests) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, User> users = userRepository.findAllById(requests.stream()
+                            .map(AnomalyVideoMetadataRequest::getUserId)
+                            .collect(Collectors.toSet()))
+                    .stream()
+                    .collect(Collectors.toMap(User::getUserId, Function.identity()));
+
+            Map<String, StreamingVideo> streamingVideos = new HashMap<>();
+            List<AnomalyBehavior> behaviors = new ArrayList<>(requests.size());
+            for (AnomalyVideoMetadataRequest request : requests) {
+                User user = users.get(request.getUserId());
+                if (user == null) {
+                    throw new IllegalArgumentException("해당 사용자 ID가 존재하지 않습니다: " + request.getUserId());
+                }
+                StreamingVideo streamingVideo = streamingVideos.computeIfAbsent(
+                        user.getUserId() + ":" + request.getCctvId(),
+                        key -> anomalyBehaviorService.resolveStreamingVideo(user, request.getCctvId()));
+                behaviors.add(anomalyBehaviorService.buildAnomalyBehavior(request, user, streamingVideo));
+            }
+            anomalyBatchInsertRepository.insertAnomalyBehaviors(behaviors);
+
+            List<Video> videos = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                AnomalyBehavior behavior = behaviors.get(i);
+                videos.add(videoService.buildVideo(requests.get(i), behavior, behavior.getUser(), behavior.getStreamingVideo()));
+            }
+            anomalyBatchInsertRepository.insertVideos(videos);
+            videoProbeService.submitAfterCommit(videos);
+            log.info("이상행동/비디오 일괄 저장 완료: size={}", requests.size());
+
+            for (AnomalyBehavior behavior : behaviors) {
+                dashboardService.updateDashboardWithAnomaly(behavior);
+            }
+            anomalyLiveFeedService.publishAfterCommit(behaviors);
+            storageSpaceService.addUsedSpace(videos.stream()
+                    .collect(Collectors.groupingBy(video -> video.getUser().getUserId(),
+                            Collectors.summingLong(Video::getFileSize))));
+
+            for (int i = 0; i < events.size(); i++) {
+                AnomalyEvent event = events.get(i);
+                event.setAnomalyId(behaviors.get(i).getAnomalyId());
+                event.setStage(AnomalyEventStage.NOTIFY);
+                event.setAttempts(0);
+                event.setLastError(null);
+                event.setLockedUntil(null);
+                event.setLeaseToken(null);
+            }
+            anomalyEventRepository.saveAll(events);
+        });
+    }
+
+    // 5. 알림 설정 확인 후 이메일 발송
+    private void notify(AnomalyEvent event, AnomalyVideoMetadataRequest request) {
+        User user = userService.getUserById(request.getUserId());
+        if (user == null || !user.isNotification()) {
+            log.info("사용자 알림 설정이 비활성화됨: userId={}", request.getUserId());
+        } else {
+            String result = emailService.processAndSendAnomalyEmail(request);
+            if (EMAIL_FAILED.equals(result)) {
+                throw new IllegalStateException("이메일 발송 중 오류가 발생했습니다.");
+            }
+            log.info("이메일 발송 성공: userId={}, email={}", user.getUserId(), user.getEmail());
+        }
+
+        event.setStage(AnomalyEventStage.DONE);
+        event.setLockedUntil(null);
+        anomalyEventRepository.save(event);
+        queueDepth.decrementAndGet();
+    }
+
+    // 실패 시 재시도 시각을 지수 백오프로 미루고, 최대 횟수를 넘기면 FAILED 처리
+    private void handleFailure(Long eventId, Exception cause) {
+        log.error("이상행동 이벤트 처리 실패: eventId={}", eventId, cause);
+
+        // 롤백된 트랜잭션에서 변경된 값이 섞이지 않도록 DB에서 다시 조회
+        anomalyEventRepository.findById(eventId).ifPresent(event -> {
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
+            event.setLastError(truncate(cause.getMessage()));
+            event.setLockedUntil(null);
+            event.setLeaseToken(null);
+
+            if (attempts >= maxAttempts) {
+                event.setStage(AnomalyEventStage.FAILED);
+                failedCounter.increment();
+                queueDepth.decrementAndGet();
+            } else {
+                long backoffSeconds = Math.min(300L, 1L << attempts);
+                event.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds));
+                retriedCounter.increment();
+            }
+            anomalyEventRepository.save(event);
+        });
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -0,0 +1,197 @@
+package com.capstone.meerkatai.alarm.service;
+
+import com.capstone.meerkatai.alarm.dto.AnomalyLiveEvent;
+import com.capstone.meerkatai.anomalybehavior.entity.AnomalyBehavior;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 로그인한 사용자에게 새 이상행동을 SSE로 바로 전달하는 실시간 피드 서비스입니다.
+ * <p>
+ * 연결마다 크기가 제한된 버퍼를 두고, 느린 클라이언트 때문에 버퍼가 가득 차면
+ * 가장 오래된 이벤트부터 버립니다. 버린 이벤트는 다음 전송 직전에 건수만 담은
+ * "overflow" 이벤트 하나로 합쳐 보내므로 클라이언트는 목록을 다시 조회하면 됩니다.
+ * </p>
+ * <p>
+ * 하트비트는 모든 연결이 하나의 타이머를 공유하며 SSE 주석 한 줄만 보내므로,
+ * 열려 있기만 한 대시보드 연결은 폴링과 달리 DB나 스레드를 점유하지 않습니다.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnomalyLiveFeedService {
+
+    private final MeterRegistry meterRegistry;
+
+    // 연결별 미전송 이벤트 최대 보관 수 (초과 시 오래된 것부터 버림)
+    @Value("${anomaly.live.buffer-size:32}")
+    private int bufferSize;
+
+    @Value("${anomaly.live.heartbeat-seconds:25}")
+    private long heartbeatSeconds;
+
+    @Value("${anomaly.live.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    private final Map<Long, Set<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    private Flux<ServerSentEvent<Object>> heartbeat;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    void init() {
+        heartbeat = Flux.interval(Duration.ofSeconds(heartbeatSeconds))
+                .map(tick -> ServerSentEvent.builder().comment("heartbeat").build())
+                .share();
+
+        Gauge.builder("anomaly.live.connections", connectionCount, AtomicInteger::get)
+                .description("열려 있는 실시간 이상행동 피드 연결 수")
+                .register(meterRegistry);
+        droppedCounter = meterRegistry.counter("anomaly.live.dropped");
+    }
+
+    /**
+     * 사용자가 실시간 피드 연결을 하나 더 열 수 있는지 확인합니다.
+     * 확인과 연결 사이에 다른 연결이 열리면 {@link #subscribe(Long)}에서 다시 거부됩니다.
+     *
+     * @param userId 사용자 ID
+     * @return 사용자당 최대 연결 수 미만이면 true
+     */
+    public boolean canConnect(Long userId) {
+        Set<Connection> connections = connectionsByUser.get(userId);
+        return connections == null || connections.size() < maxConnectionsPerUser;
+    }
+
+    /**
+     * 사용자의 실시간 피드 스트림을 엽니다. 구독이 끝나면 연결이 자동으로 정리됩니다.
+     *
+     * @param userId 사용자 ID
+     * @return SSE 이벤트 스트림
+     * @throws IllegalStateException 사용자당 최대 연결 수를 넘은 경우
+     */
+    public Flux<ServerSentEvent<Object>> subscribe(Long userId) {
+        return Flux.defer(() -> {
+            Connection connection = new Connection();
+            register(userId, connection);
+
+            Flux<ServerSentEvent<Object>> events = connection.sink.asFlux()
+                    .onBackpressureBuffer(bufferSize, dropped -> {
+                        connection.dropped.incrementAndGet();
+                        droppedCounter.increment();
+                    }, BufferOverflowStrategy.DROP_OLDEST)
+                    .concatMapIterable(event -> {
+                        int dropped = connection.dropped.getAndSet(0);
+                        return dropped > 0 ? List.of(overflowEvent(dropped), event) : List.of(event);
+                    });
+
+            return Flux.merge(events, heartbeat.onBackpressureDrop())
+                    .startWith(ServerSentEvent.builder().comment("connected").build())
+                    .doFinally(signal -> unregister(userId, connection));
+        });
+    }
+
+    /**
+     * 저장된 이상행동을 해당 사용자의 열린 연결에 전달합니다.
+     * 트랜잭션 안에서 호출되면 커밋된 경우에만 전달합니다.
+     *
+     * @param behaviors 저장되어 ID가 부여된 이상행동 목록
+     */
+    public void publishAfterCommit(List<AnomalyBehavior> behaviors) {
+        List<Map.Entry<Long, AnomalyLiveEvent>> events = behaviors.stream()
+                .filter(behavior -> connectionsByUser.containsKey(behavior.getUser().getUserId()))
+                .map(behavior -> Map.entry(behavior.getUser().getUserId(), AnomalyLiveEvent.from(behavior)))
+                .toList();
+        if (events.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    events.forEach(event -> publish(event.getKey(), event.getValue()));
+                }
+            });
+        } else {
+            events.forEach(event -> publish(event.getKey(), event.getValue()));
+        }
+    }
+
+    private void publish(Long userId, AnomalyLiveEvent event) {
+        Set<Connection> connections = connectionsByUser.get(userId);
+        if (connections == null) {
+            return;
+        }
+
+        ServerSentEvent<Object> sse = ServerSentEvent.builder()
+                .id(String.valueOf(event.anomalyId()))
+                .event("anomaly")
+                .data(event)
+                .build();
+        for (Connection connection : connections) {
+            connection.emit(sse);
+        }
+    }
+
+    private void register(Long userId, Connection connection) {
+        connectionsByUser.compute(userId, (id, connections) -> {
+            Set<Connection> target = connections != null ? connections : ConcurrentHashMap.newKeySet();
+            if (target.size() >= maxConnectionsPerUser) {
+                throw new IllegalStateException("실시간 피드 연결 수가 최대치를 초과했습니다: " + maxConnectionsPerUser);
+            }
+            target.add(connection);
+            return target;
+        });
+        connectionCount.incrementAndGet();
+    }
+
+    private void unregister(Long userId, Connection connection) {
+        connectionsByUser.computeIfPresent(userId, (id, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+        connectionCount.decrementAndGet();
+    }
+
+    private static ServerSentEvent<Object> overflowEvent(int dropped) {
+        return ServerSentEvent.builder()
+                .event("overflow")
+                .data(Map.of("dropped", dropped))
+                .build();
+    }
+
+    /**
+     * 클라이언트 연결 하나 (버퍼 앞단의 싱크와 버린 이벤트 수)
+     */
+    private static final class Connection {
+
+        private final Sinks.Many<ServerSentEvent<Object>> sink = Sinks.many().unicast().onBackpressureBuffer();
+        private final AtomicInteger dropped = new AtomicInteger();
+
+        // 여러 워커 스레드가 동시에 전달할 수 있으므로 연결 단위로 직렬화
+        synchronized void emit(ServerSentEvent<Object> event) {
+            sink.tryEmitNext(event);
+        }
+    }
+}
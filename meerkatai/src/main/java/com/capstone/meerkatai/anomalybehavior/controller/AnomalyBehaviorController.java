@@ -1,13 +1,28 @@
 package com.capstone.meerkatai.anomalybehavior.controller;
 
-import com.capstone.meerkatai.anomalybehavior.entity.AnomalyBehavior;
+import com.capstone.meerkatai.anomalybehavior.dto.AnomalyBehaviorFilter;
+import com.capstone.meerkatai.anomalybehavior.dto.AnomalyBehaviorPage;
+import com.capstone.meerkatai.anomalybehavior.dto.AnomalyBehaviorResponse;
+import com.capstone.meerkatai.anomalybehavior.entity.AnomalyBehaviorType;
 import com.capstone.meerkatai.anomalybehavior.service.AnomalyBehaviorService;
 import com.capstone.meerkatai.common.dto.ApiResponse;
 import com.capstone.meerkatai.common.exception.ResourceNotFoundException;
+import com.capstone.meerkatai.user.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -15,25 +30,106 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AnomalyBehaviorController {
 
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
     private final AnomalyBehaviorService anomalyBehaviorService;
+    private final ObjectMapper objectMapper;
+    private final UserRepository userRepository;
+
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String email = authentication.getName();
+
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email))
+                .getUserId();
+    }
 
     /**
-     * 사용자의 모든 이상행동 목록 조회
+     * 사용자의 이상행동 목록 조회 (최신순, 키셋 커서 페이지네이션)
      * S3 URL을 presigned URL로 변환하여 제공
      * 
      * @param userId 사용자 ID
-     * @return 이상행동 목록
+     * @param cursor 이전 응답의 nextCursor (첫 페이지면 생략)
+     * @param limit 페이지 크기 (기본 20, 최대 100)
+     * @param cctvId CCTV ID 필터
+     * @param types 이상행동 유형 필터 (type1~type7, 쉼표 구분, 하나라도 일치하면 포함)
+     * @param from 조회 시작 시간 (포함, ISO-8601)
+     * @param to 조회 종료 시간 (미포함, ISO-8601)
+     * @return 이상행동 목록과 다음 페이지 커서 (다른 사용자의 목록이면 403)
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<ApiResponse<List<AnomalyBehavior>>> getUserAnomalies(@PathVariable Long userId) {
+    public ResponseEntity<ApiResponse<AnomalyBehaviorPage>> getUserAnomalies(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) Long cctvId,
+            @RequestParam(required = false) List<String> types,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        // JWT 기반 사용자 식별 - 본인 목록만 조회 가능
+        if (!userId.equals(getCurrentUserId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ApiResponse.error("다른 사용자의 이상행동은 조회할 수 없습니다."));
+        }
         try {
-            List<AnomalyBehavior> anomalies = anomalyBehaviorService.getAllAnomalyBehaviorsWithPresignedUrls(userId);
+            AnomalyBehaviorFilter filter = new AnomalyBehaviorFilter(userId, cctvId, toTypeCodes(types), from, to);
+            AnomalyBehaviorPage anomalies = anomalyBehaviorService.getAnomalyBehaviorPage(filter, cursor, limit);
             return ResponseEntity.ok(ApiResponse.success(anomalies));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
     }
 
+    /**
+     * 사용자의 이상행동 전체 내보내기 (NDJSON, 한 줄에 한 건)
+     * DB 커서로 읽는 대로 응답에 기록하므로 전체 목록을 메모리에 만들지 않습니다.
+     * 필터 파라미터는 목록 조회와 같습니다.
+     * 내보내기는 끝날 때까지 DB 연결을 점유하므로 동시 실행 수를 제한하며, 한도를 넘으면 429를 반환합니다.
+     *
+     * @param userId 사용자 ID
+     * @return 최신순 이상행동 NDJSON 스트림 (다른 사용자의 목록이면 403)
+     */
+    @GetMapping(value = "/user/{userId}/export", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUserAnomalies(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long cctvId,
+            @RequestParam(required = false) List<String> types,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!userId.equals(getCurrentUserId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        AnomalyBehaviorFilter filter = new AnomalyBehaviorFilter(userId, cctvId, toTypeCodes(types), from, to);
+
+        if (!anomalyBehaviorService.tryStartExport()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "10")
+                    .build();
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            try {
+                anomalyBehaviorService.streamAnomalyBehaviors(filter, anomaly -> {
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(anomaly));
+                        outputStream.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // 클라이언트 연결 종료 등 쓰기 실패 시 조회 중단
+                throw e.getCause();
+            } finally {
+                anomalyBehaviorService.finishExport();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+                .body(body);
+    }
+
     /**
      * 이상행동 상세 정보 조회
      * S3 URL을 presigned URL로 변환하여 제공
@@ -42,9 +138,9 @@ public class AnomalyBehaviorController {
      * @return 이상행동 상세 정보
      */
     @GetMapping("/{anomalyId}")
-    public ResponseEntity<ApiResponse<AnomalyBehavior>> getAnomalyDetail(@PathVariable Long anomalyId) {
+    public ResponseEntity<ApiResponse<AnomalyBehaviorResponse>> getAnomalyDetail(@PathVariable Long anomalyId) {
         try {
-            AnomalyBehavior anomaly = anomalyBehaviorService.getAnomalyBehaviorWithPresignedUrls(anomalyId);
+            AnomalyBehaviorResponse anomaly = anomalyBehaviorService.getAnomalyBehaviorWithPresignedUrls(anomalyId);
             return ResponseEntity.ok(ApiResponse.success(anomaly));
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.notFound().build();
@@ -52,4 +148,20 @@ public class AnomalyBehaviorController {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    // "type1" 등 유형 값을 유형 코드로 변환
+    private static List<Integer> toTypeCodes(List<String> types) {
+        if (types == null) {
+            return null;
+        }
+        return types.stream()
+                .map(key -> {
+                    AnomalyBehaviorType type = AnomalyBehaviorType.fromKey(key);
+                    if (type == null) {
+                        throw new IllegalArgumentException("알 수 없는 이상행동 유형입니다: " + key);
+                    }
+                    return type.getCode();
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,22 @@
+package com.capstone.meerkatai.anomalybehavior.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 사용자 이상행동 목록 조회 조건 (값이 없는 조건은 적용하지 않음)
+ *
+ * @param userId 사용자 ID
+ * @param cctvId CCTV ID
+ * @param typeCodes 이상행동 유형 코드 목록 (하나라도 일치하면 포함)
+ * @param from 조회 시작 시간 (포함)
+ * @param to 조회 종료 시간 (미포함)
+ */
+public record AnomalyBehaviorFilter(
+        Long userId,
+        Long cctvId,
+        List<Integer> typeCodes,
+        LocalDateTime from,
+        LocalDateTime to
+) {
+}
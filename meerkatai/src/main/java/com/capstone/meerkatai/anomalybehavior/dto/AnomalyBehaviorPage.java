@@ -0,0 +1,12 @@
+package com.capstone.meerkatai.anomalybehavior.dto;
+
+import java.util.List;
+
+/**
+ * 이상행동 목록 한 페이지
+ *
+ * @param items 이상행동 목록 (최신순)
+ * @param nextCursor 다음 페이지 커서, 마지막 페이지면 null
+ */
+public record AnomalyBehaviorPage(List<AnomalyBehaviorResponse> items, String nextCursor) {
+}
@@ -0,0 +1,37 @@
+package com.capstone.meerkatai.anomalybehavior.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 이상행동 조회 응답 (JPQL 생성자 표현식으로 필요한 컬럼만 조회)
+ * <p>
+ * 엔티티를 직접 직렬화하지 않으므로 연관 엔티티를 따라가며 추가 쿼리가 발생하지 않고,
+ * Presigned URL은 새 객체에 담아 반환하므로 영속 엔티티가 변경되지 않습니다.
+ * </p>
+ *
+ * @param anomalyId 이상행동 ID
+ * @param anomalyBehaviorType 이상행동 유형 (탐지 서버가 보낸 원문)
+ * @param anomalyTypeCode 표준 유형 코드 (1~7, 분류 불가면 null)
+ * @param anomalyTime 이상행동 발생 시간
+ * @param anomalyVideoLink 영상 링크 (S3 URL이면 Presigned URL로 변환)
+ * @param anomalyThumbnailLink 썸네일 링크 (S3 URL이면 Presigned URL로 변환)
+ * @param streamingVideoId 스트리밍 영상 ID
+ */
+public record AnomalyBehaviorResponse(
+        Long anomalyId,
+        String anomalyBehaviorType,
+        Integer anomalyTypeCode,
+        LocalDateTime anomalyTime,
+        String anomalyVideoLink,
+        String anomalyThumbnailLink,
+        Long streamingVideoId
+) {
+
+    /**
+     * 링크만 바꾼 새 응답을 반환합니다.
+     */
+    public AnomalyBehaviorResponse withLinks(String videoLink, String thumbnailLink) {
+        return new AnomalyBehaviorResponse(anomalyId, anomalyBehaviorType, anomalyTypeCode, anomalyTime,
+                videoLink, thumbnailLink, streamingVideoId);
+    }
+}
@@ -12,7 +12,14 @@ import java.time.LocalDateTime;
 @Getter @Setter @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "anomaly_behavior")
+@Table(name = "anomaly_behavior", indexes = {
+        // 사용자별 최신순 조회 + 날짜 필터 (영상 리스트 키셋 페이지네이션)
+        @Index(name = "idx_anomaly_behavior_user_time", columnList = "user_id, anomaly_time"),
+        // 사용자 + 카메라(스트리밍 영상) 필터 최신순 조회
+        @Index(name = "idx_anomaly_behavior_user_stream_time", columnList = "user_id, streaming_video_id, anomaly_time"),
+        // 사용자 + 유형 코드 필터 최신순 조회
+        @Index(name = "idx_anomaly_behavior_user_type_code_time", columnList = "user_id, anomaly_type_code, anomaly_time")
+})
 public class AnomalyBehavior {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,6 +29,10 @@ public class AnomalyBehavior {
     @Column(nullable = false)
     private String anomalyBehaviorType;
 
+    // 수집 시 분류한 표준 유형 코드 (AnomalyBehaviorType, 1~7 / 분류 불가면 null)
+    @Column(name = "anomaly_type_code")
+    private Integer anomalyTypeCode;
+
     @Column(nullable = false)
     private LocalDateTime anomalyTime;
 
@@ -31,7 +42,7 @@ public class AnomalyBehavior {
     @Column(nullable = false, length = 250)
     private String anomalyThumbnailLink;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "streaming_video_id", nullable = false)
     private StreamingVideo streamingVideo;
 
@@ -39,7 +50,7 @@ public class AnomalyBehavior {
 //    @JoinColumn(name = "user_id", nullable = false)
 //    private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 }
\ No newline at end of file
@@ -1,5 +1,65 @@
 package com.capstone.meerkatai.anomalybehavior.entity;
 
+/**
+ * 이상행동 표준 유형
+ * <p>
+ * 유형 코드(1~7)는 anomaly_behavior.anomaly_type_code 컬럼, 대시보드의 typeN_count,
+ * 영상 리스트 필터의 "typeN" 값과 같은 번호를 사용합니다.
+ * </p>
+ */
 public enum AnomalyBehaviorType {
-    TYPE1, TYPE2, TYPE3, TYPE4, TYPE5, TYPE6
-}
\ No newline at end of file
+    TYPE1(1, "전도"),
+    TYPE2(2, "파손"),
+    TYPE3(3, "방화"),
+    TYPE4(4, "흡연"),
+    TYPE5(5, "유기"),
+    TYPE6(6, "절도"),
+    TYPE7(7, "폭행");
+
+    private final int code;
+    private final String keyword;
+
+    AnomalyBehaviorType(int code, String keyword) {
+        this.code = code;
+        this.keyword = keyword;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * 유형 코드로 유형을 찾습니다.
+     *
+     * @param code 유형 코드 (1~7)
+     * @return 유형, 없는 코드면 null
+     */
+    public static AnomalyBehaviorType fromCode(Integer code) {
+        if (code == null || code < 1 || code > values().length) {
+            return null;
+        }
+        return values()[code - 1];
+    }
+
+    /**
+     * 요청 파라미터의 유형 값("type1", "TYPE1" 등)으로 유형을 찾습니다.
+     *
+     * @param key 유형 값
+     * @return 유형, 일치하는 유형이 없으면 null
+     */
+    public static AnomalyBehaviorType fromKey(String key) {
+        if (key == null || key.isBlank()) {
+            return null;
+        }
+        for (AnomalyBehaviorType type : values()) {
+            if (type.name().equalsIgnoreCase(key.trim())) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.capstone.meerkatai.anomalybehavior.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 이상행동 유형 코드 백필 진행 위치
+ * <p>
+ * 마지막으로 확인한 anomaly_id를 기록해, 분류되지 않는 행을 서버를 시작할 때마다 다시 읽지 않도록 합니다.
+ * </p>
+ */
+@Entity
+@Getter @Setter @NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "anomaly_type_code_backfill_checkpoint")
+public class AnomalyTypeCodeBackfillCheckpoint {
+
+    @Id
+    @Column(length = 50)
+    private String jobName;
+
+    @Column(nullable = false)
+    private Long lastAnomalyId;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+}
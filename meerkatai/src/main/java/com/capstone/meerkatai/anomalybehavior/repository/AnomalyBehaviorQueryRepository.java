@@ -0,0 +1,125 @@
+package com.capstone.meerkatai.anomalybehavior.repository;
+
+import com.capstone.meerkatai.anomalybehavior.dto.AnomalyBehaviorFilter;
+import com.capstone.meerkatai.anomalybehavior.dto.AnomalyBehaviorResponse;
+import com.capstone.meerkatai.common.dto.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 사용자 이상행동 목록을 필터 조건과 키셋 커서로 조회하는 레포지토리입니다.
+ * <p>
+ * 값이 있는 조건만 WHERE 절에 추가하므로 모든 조회가
+ * (user_id, anomaly_time), (user_id, anomaly_type_code, anomaly_time),
+ * (user_id, streaming_video_id, anomaly_time) 인덱스 중 하나를 따라 최신순으로 읽히며, OFFSET 없이 커서 이후 행만 가져옵니다.
+ * 전체 내보내기는 MySQL 스트리밍 결과셋으로 읽어 행 단위로 넘기므로 목록을 메모리에 쌓지 않습니다.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnomalyBehaviorQueryRepository {
+
+    private static final String SELECT_SQL =
+            "SELECT a.anomaly_id, a.anomaly_behavior_type, a.anomaly_type_code, a.anomaly_time, a.anomaly_video_link, " +
+            "a.anomaly_thumbnail_link, a.streaming_video_id FROM anomaly_behavior a WHERE a.user_id = ?";
+
+    private static final RowMapper<AnomalyBehaviorResponse> ROW_MAPPER = (rs, rowNum) -> map(rs);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 커서 이후의 이상행동을 최대 limit건 조회합니다.
+     *
+     * @param filter 조회 조건
+     * @param after  이전 페이지 마지막 행의 커서 (첫 페이지면 null)
+     * @param limit  최대 조회 건수
+     * @return 최신순 이상행동 목록
+     */
+    public List<AnomalyBehaviorResponse> findPage(AnomalyBehaviorFilter filter, KeysetCursor after, int limit) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = buildQuery(filter, after, params);
+        sql.append(" LIMIT ?");
+        params.add(limit);
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, params.toArray());
+    }
+
+    /**
+     * 조건에 맞는 이상행동 전체를 DB 커서로 읽으며 한 건씩 넘깁니다.
+     *
+     * @param filter 조회 조건
+     * @param action 행마다 호출할 처리 (호출 중에는 커넥션이 결과셋을 점유함)
+     */
+    public void streamAll(AnomalyBehaviorFilter filter, Consumer<AnomalyBehaviorResponse> action) {
+        List<Object> params = new ArrayList<>();
+        String sql = buildQuery(filter, null, params).toString();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // MySQL Connector/J: Integer.MIN_VALUE이면 결과를 한 번에 받지 않고 행 단위로 스트리밍
+            ps.setFetchSize(Integer.MIN_VALUE);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(map(rs)));
+    }
+
+    private StringBuilder buildQuery(AnomalyBehaviorFilter filter, KeysetCursor after, List<Object> params) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        params.add(filter.userId());
+
+        if (filter.cctvId() != null) {
+            sql.append(" AND a.streaming_video_id IN " +
+                    "(SELECT s.streaming_video_id FROM streaming_video s WHERE s.cctv_id = ?)");
+            params.add(filter.cctvId());
+        }
+        if (filter.typeCodes() != null && !filter.typeCodes().isEmpty()) {
+            sql.append(" AND a.anomaly_type_code IN (")
+                    .append(String.join(", ", Collections.nCopies(filter.typeCodes().size(), "?")))
+                    .append(")");
+            params.addAll(filter.typeCodes());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND a.anomaly_time >= ?");
+            params.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND a.anomaly_time < ?");
+            params.add(Timestamp.valueOf(filter.to()));
+        }
+        if (after != null) {
+            Timestamp cursorTime = Timestamp.valueOf(after.getTime());
+            sql.append(" AND (a.anomaly_time < ? OR (a.anomaly_time = ? AND a.anomaly_id < ?))");
+            params.add(cursorTime);
+            params.add(cursorTime);
+            params.add(after.getId());
+        }
+
+        sql.append(" ORDER BY a.anomaly_time DESC, a.anomaly_id DESC");
+        return sql;
+    }
+
+    private static AnomalyBehaviorResponse map(ResultSet rs) throws SQLException {
+        return new AnomalyBehaviorResponse(
+                rs.getLong("anomaly_id"),
+                rs.getString("anomaly_behavior_type"),
+                rs.getObject("anomaly_type_code", Integer.class),
+                rs.getTimestamp("anomaly_time").toLocalDateTime(),
+                rs.getString("anomaly_video_link"),
+                rs.getString("anomaly_thumbnail_link"),
+                rs.getLong("streaming_video_id")
+        );
+    }
+}
@@ -1,13 +1,24 @@
 package com.capstone.meerkatai.anomalybehavior.repository;
 
+import com.capstone.meerkatai.anomalybehavior.dto.AnomalyBehaviorResponse;
 import com.capstone.meerkatai.anomalybehavior.entity.AnomalyBehavior;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface AnomalyBehaviorRepository extends JpaRepository<AnomalyBehavior, Long> {
     // 사용자 ID로 이상행동 목록 조회
     List<AnomalyBehavior> findByUserUserId(Long userId);
 
+    // 이상행동 상세 응답 조회
+    @Query("SELECT new com.capstone.meerkatai.anomalybehavior.dto.AnomalyBehaviorResponse(" +
+            "a.anomalyId, a.anomalyBehaviorType, a.anomalyTypeCode, a.anomalyTime, a.anomalyVideoLink, a.anomalyThumbnailLink, " +
+            "a.streamingVideo.streamingVideoId) " +
+            "FROM AnomalyBehavior a WHERE a.anomalyId = :anomalyId")
+    Optional<AnomalyBehaviorResponse> findResponseById(@Param("anomalyId") Long anomalyId);
+
     void deleteByUserUserId(Long userId);
 }
\ No newline at end of file
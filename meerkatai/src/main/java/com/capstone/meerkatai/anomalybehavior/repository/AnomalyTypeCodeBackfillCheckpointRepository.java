@@ -0,0 +1,8 @@
+package com.capstone.meerkatai.anomalybehavior.repository;
+
+import com.capstone.meerkatai.anomalybehavior.entity.AnomalyTypeCodeBackfillCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AnomalyTypeCodeBackfillCheckpointRepository
+        extends JpaRepository<AnomalyTypeCodeBackfillCheckpoint, String> {
+}
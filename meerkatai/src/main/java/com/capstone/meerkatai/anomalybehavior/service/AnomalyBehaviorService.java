@@ -1,17 +1,25 @@
 package com.capstone.meerkatai.anomalybehavior.service;
 
 import com.capstone.meerkatai.alarm.dto.AnomalyVideoMetadataRequest;
+import com.capstone.meerkatai.anomalybehavior.dto.AnomalyBehaviorFilter;
+import com.capstone.meerkatai.anomalybehavior.dto.AnomalyBehaviorPage;
+import com.capstone.meerkatai.anomalybehavior.dto.AnomalyBehaviorResponse;
 import com.capstone.meerkatai.anomalybehavior.entity.AnomalyBehavior;
+import com.capstone.meerkatai.anomalybehavior.repository.AnomalyBehaviorQueryRepository;
 import com.capstone.meerkatai.anomalybehavior.repository.AnomalyBehaviorRepository;
 import com.capstone.meerkatai.cctv.entity.Cctv;
 import com.capstone.meerkatai.cctv.repository.CctvRepository;
+import com.capstone.meerkatai.common.dto.KeysetCursor;
+import com.capstone.meerkatai.common.exception.ResourceNotFoundException;
 import com.capstone.meerkatai.global.service.S3Service;
 import com.capstone.meerkatai.streamingvideo.entity.StreamingVideo;
 import com.capstone.meerkatai.streamingvideo.repository.StreamingVideoRepository;
 import com.capstone.meerkatai.user.entity.User;
 import com.capstone.meerkatai.user.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +27,8 @@ import java.net.URL;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -26,11 +36,27 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AnomalyBehaviorService {
 
+    // 이상행동 목록 한 페이지 최대 크기
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final AnomalyBehaviorRepository anomalyBehaviorRepository;
+    private final AnomalyBehaviorQueryRepository anomalyBehaviorQueryRepository;
     private final UserRepository userRepository;
     private final StreamingVideoRepository streamingVideoRepository;
     private final CctvRepository cctvRepository;
     private final S3Service s3Service;
+    private final AnomalyTypeClassifier anomalyTypeClassifier;
+
+    // 동시에 실행할 수 있는 내보내기 수 (내보내기마다 DB 연결 하나를 응답이 끝날 때까지 점유)
+    @Value("${anomaly.export.max-concurrent:2}")
+    private int maxConcurrentExports;
+
+    private Semaphore exportPermits;
+
+    @PostConstruct
+    void init() {
+        exportPermits = new Semaphore(maxConcurrentExports);
+    }
 
     //FastAPI에서 받은 메타데이터 DB에 저장하는 메소드
     @Transactional
@@ -42,30 +68,48 @@ public class AnomalyBehaviorService {
                 .orElseThrow(() -> new RuntimeException("사용자 없음: ID=" + request.getUserId()));
         log.debug("사용자 조회 성공: {}", user.getUserId());
 
-        // StreamingVideo 조회 - CCTV ID로 조회 시도
+        StreamingVideo streamingVideo = resolveStreamingVideo(user, request.getCctvId());
+
+        // AnomalyBehavior 생성 및 저장
+        try {
+            AnomalyBehavior behavior = buildAnomalyBehavior(request, user, streamingVideo);
+
+            AnomalyBehavior saved = anomalyBehaviorRepository.save(behavior);
+            log.info("✅ 이상행동 저장 완료: anomaly_id={}", saved.getAnomalyId());
+            return saved;
+        } catch (Exception e) {
+            log.error("이상행동 저장 중 오류 발생", e);
+            throw new RuntimeException("이상행동 저장 오류: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 사용자 + CCTV에 해당하는 StreamingVideo 조회 (없으면 비활성 상태로 생성)
+     */
+    public StreamingVideo resolveStreamingVideo(User user, Long cctvId) {
         StreamingVideo streamingVideo;
         try {
             // 1. 사용자ID와 CCTVID로 먼저 조회 시도
             Optional<StreamingVideo> streamingVideoOpt = streamingVideoRepository
-                    .findByUserUserIdAndCctvCctvId(request.getUserId(), request.getCctvId());
+                    .findByUserUserIdAndCctvCctvId(user.getUserId(), cctvId);
             
             if (streamingVideoOpt.isPresent()) {
                 streamingVideo = streamingVideoOpt.get();
                 log.info("사용자ID와 CCTVID로 StreamingVideo 조회 성공: id={}", streamingVideo.getStreamingVideoId());
             } else {
                 // 2. CCTV ID로만 조회 시도
-                List<StreamingVideo> streamingVideos = streamingVideoRepository.findByCctvCctvId(request.getCctvId());
+                List<StreamingVideo> streamingVideos = streamingVideoRepository.findByCctvCctvId(cctvId);
                 
                 if (!streamingVideos.isEmpty()) {
                     streamingVideo = streamingVideos.get(0); // 가장 첫 번째 항목 사용
                     log.info("CCTVID로 StreamingVideo 조회 성공: id={}", streamingVideo.getStreamingVideoId());
                 } else {
                     // 3. 조회 실패 시 새로 생성
-                    log.warn("StreamingVideo를 찾을 수 없어 새로 생성합니다: cctvId={}", request.getCctvId());
+                    log.warn("StreamingVideo를 찾을 수 없어 새로 생성합니다: cctvId={}", cctvId);
                     
                     // CCTV 엔티티 조회
-                    Cctv cctv = cctvRepository.findById(request.getCctvId())
-                            .orElseThrow(() -> new RuntimeException("CCTV를 찾을 수 없습니다: ID=" + request.getCctvId()));
+                    Cctv cctv = cctvRepository.findById(cctvId)
+                            .orElseThrow(() -> new RuntimeException("CCTV를 찾을 수 없습니다: ID=" + cctvId));
                     
                     // StreamingVideo 생성
                     streamingVideo = StreamingVideo.builder()
@@ -84,7 +128,13 @@ public class AnomalyBehaviorService {
             log.error("StreamingVideo 처리 중 오류 발생", e);
             throw new RuntimeException("StreamingVideo 처리 오류: " + e.getMessage(), e);
         }
+        return streamingVideo;
+    }
 
+    /**
+     * 요청 메타데이터로 저장 전 AnomalyBehavior 엔티티 생성 (썸네일 URL 보정 포함)
+     */
+    public AnomalyBehavior buildAnomalyBehavior(AnomalyVideoMetadataRequest request, User user, StreamingVideo streamingVideo) {
         // S3 URL 확인 및 처리
         String videoUrl = request.getVideoUrl();
         String thumbnailUrl = request.getThumbnailUrl();
@@ -103,64 +153,86 @@ public class AnomalyBehaviorService {
             }
         }
 
-        // AnomalyBehavior 생성 및 저장
-        try {
-            AnomalyBehavior behavior = AnomalyBehavior.builder()
-                    .anomalyBehaviorType(request.getAnomalyType())
-                    .anomalyTime(request.getTimestamp())
-                    .anomalyVideoLink(videoUrl)
-                    .anomalyThumbnailLink(thumbnailUrl)
-                    .streamingVideo(streamingVideo)
-                    .user(user)
-                    .build();
-
-            AnomalyBehavior saved = anomalyBehaviorRepository.save(behavior);
-            log.info("✅ 이상행동 저장 완료: anomaly_id={}", saved.getAnomalyId());
-            return saved;
-        } catch (Exception e) {
-            log.error("이상행동 저장 중 오류 발생", e);
-            throw new RuntimeException("이상행동 저장 오류: " + e.getMessage(), e);
-        }
+        return AnomalyBehavior.builder()
+                .anomalyBehaviorType(request.getAnomalyType())
+                .anomalyTypeCode(anomalyTypeClassifier.classifyCode(request.getAnomalyType()))
+                .anomalyTime(request.getTimestamp())
+                .anomalyVideoLink(videoUrl)
+                .anomalyThumbnailLink(thumbnailUrl)
+                .streamingVideo(streamingVideo)
+                .user(user)
+                .build();
     }
     
     /**
-     * 사용자의 모든 이상행동 목록 조회 (S3 URL을 presigned URL로 변환)
+     * 사용자의 이상행동 목록을 한 페이지 조회 (S3 URL을 presigned URL로 변환)
+     * 엔티티 대신 응답 DTO로 조회하므로 변환한 URL이 DB에 반영되지 않습니다.
+     *
+     * @param filter 조회 조건
+     * @param cursor 이전 응답의 nextCursor (첫 페이지면 null)
+     * @param limit  페이지 크기 (1 ~ MAX_PAGE_SIZE)
      */
-    public List<AnomalyBehavior> getAllAnomalyBehaviorsWithPresignedUrls(Long userId) {
-        // 사용자의 이상행동 목록 조회 (JPA 메소드명 패턴에 맞게 수정)
-        List<AnomalyBehavior> anomalyBehaviors = anomalyBehaviorRepository.findByUserUserId(userId);
-        
-        // URL을 presigned URL로 변환하여 반환
-        return anomalyBehaviors.stream()
-                .map(behavior -> {
-                    // S3 URL을 presigned URL로 변환
-                    String videoLink = generatePresignedUrlIfNeeded(behavior.getAnomalyVideoLink());
-                    String thumbnailLink = generatePresignedUrlIfNeeded(behavior.getAnomalyThumbnailLink());
-                    
-                    // 객체의 URL을 presigned URL로 변경
-                    behavior.setAnomalyVideoLink(videoLink);
-                    behavior.setAnomalyThumbnailLink(thumbnailLink);
-                    return behavior;
-                })
+    public AnomalyBehaviorPage getAnomalyBehaviorPage(AnomalyBehaviorFilter filter, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // 한 건 더 조회해서 다음 페이지 존재 여부 판단
+        List<AnomalyBehaviorResponse> fetched =
+                anomalyBehaviorQueryRepository.findPage(filter, KeysetCursor.decode(cursor), size + 1);
+        boolean hasNext = fetched.size() > size;
+        List<AnomalyBehaviorResponse> page = hasNext ? fetched.subList(0, size) : fetched;
+
+        String nextCursor = null;
+        if (hasNext) {
+            AnomalyBehaviorResponse last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.anomalyTime(), last.anomalyId()).encode();
+        }
+
+        List<AnomalyBehaviorResponse> items = page.stream()
+                .map(this::withPresignedLinks)
                 .collect(Collectors.toList());
+        return new AnomalyBehaviorPage(items, nextCursor);
+    }
+
+    /**
+     * 조건에 맞는 이상행동 전체를 DB에서 읽는 대로 한 건씩 넘깁니다. (S3 URL을 presigned URL로 변환)
+     *
+     * @param filter 조회 조건
+     * @param action 행마다 호출할 처리
+     */
+    public void streamAnomalyBehaviors(AnomalyBehaviorFilter filter, Consumer<AnomalyBehaviorResponse> action) {
+        anomalyBehaviorQueryRepository.streamAll(filter, behavior -> action.accept(withPresignedLinks(behavior)));
+    }
+
+    /**
+     * 내보내기 실행 슬롯을 확보합니다. 확보한 경우 내보내기가 끝나면 {@link #finishExport()}를 호출해야 합니다.
+     *
+     * @return 확보 여부 (false면 동시 내보내기 한도 초과)
+     */
+    public boolean tryStartExport() {
+        return exportPermits.tryAcquire();
+    }
+
+    /**
+     * 내보내기 실행 슬롯을 반환합니다.
+     */
+    public void finishExport() {
+        exportPermits.release();
     }
     
     /**
      * 이상행동 상세 정보 조회 (S3 URL을 presigned URL로 변환)
      */
-    public AnomalyBehavior getAnomalyBehaviorWithPresignedUrls(Long anomalyId) {
-        AnomalyBehavior behavior = anomalyBehaviorRepository.findById(anomalyId)
-                .orElseThrow(() -> new RuntimeException("이상행동 정보를 찾을 수 없습니다: ID=" + anomalyId));
-        
-        // S3 URL을 presigned URL로 변환
-        String videoLink = generatePresignedUrlIfNeeded(behavior.getAnomalyVideoLink());
-        String thumbnailLink = generatePresignedUrlIfNeeded(behavior.getAnomalyThumbnailLink());
-        
-        // 객체의 URL을 presigned URL로 변경
-        behavior.setAnomalyVideoLink(videoLink);
-        behavior.setAnomalyThumbnailLink(thumbnailLink);
-        
-        return behavior;
+    @Transactional(readOnly = true)
+    public AnomalyBehaviorResponse getAnomalyBehaviorWithPresignedUrls(Long anomalyId) {
+        AnomalyBehaviorResponse behavior = anomalyBehaviorRepository.findResponseById(anomalyId)
+                .orElseThrow(() -> new ResourceNotFoundException("AnomalyBehavior", "id", anomalyId));
+        return withPresignedLinks(behavior);
+    }
+
+    private AnomalyBehaviorResponse withPresignedLinks(AnomalyBehaviorResponse behavior) {
+        return behavior.withLinks(
+                generatePresignedUrlIfNeeded(behavior.anomalyVideoLink()),
+                generatePresignedUrlIfNeeded(behavior.anomalyThumbnailLink()));
     }
     
     /**
@@ -0,0 +1,61 @@
+package com.capstone.meerkatai.anomalybehavior.service;
+
+import com.capstone.meerkatai.anomalybehavior.entity.AnomalyBehaviorType;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 탐지 서버가 보낸 이상행동 유형 문자열(예: "절도 감지", "폭행 의심")을 표준 유형으로 분류합니다.
+ * <p>
+ * 모든 유형 키워드를 하나의 정규식으로 미리 컴파일해 두고 문자열을 한 번만 훑어
+ * 가장 앞에 나온 키워드의 유형을 반환합니다. 수집 시 한 번만 분류해 유형 코드로 저장하고,
+ * 조회/집계는 저장된 코드를 사용합니다.
+ * </p>
+ */
+@Component
+public class AnomalyTypeClassifier {
+
+    private static final Pattern KEYWORD_PATTERN = Pattern.compile(
+            Arrays.stream(AnomalyBehaviorType.values())
+                    .map(type -> Pattern.quote(type.getKeyword()))
+                    .collect(Collectors.joining("|")));
+
+    private static final Map<String, AnomalyBehaviorType> TYPES_BY_KEYWORD = new HashMap<>();
+
+    static {
+        for (AnomalyBehaviorType type : AnomalyBehaviorType.values()) {
+            TYPES_BY_KEYWORD.put(type.getKeyword(), type);
+        }
+    }
+
+    /**
+     * 유형 문자열을 표준 유형으로 분류합니다.
+     *
+     * @param anomalyType 탐지 서버가 보낸 유형 문자열
+     * @return 표준 유형, 키워드가 없으면 null
+     */
+    public AnomalyBehaviorType classify(String anomalyType) {
+        if (anomalyType == null || anomalyType.isEmpty()) {
+            return null;
+        }
+        Matcher matcher = KEYWORD_PATTERN.matcher(anomalyType);
+        return matcher.find() ? TYPES_BY_KEYWORD.get(matcher.group()) : null;
+    }
+
+    /**
+     * 유형 문자열을 유형 코드로 분류합니다.
+     *
+     * @param anomalyType 탐지 서버가 보낸 유형 문자열
+     * @return 유형 코드 (1~7), 키워드가 없으면 null
+     */
+    public Integer classifyCode(String anomalyType) {
+        AnomalyBehaviorType type = classify(anomalyType);
+        return type != null ? type.getCode() : null;
+    }
+}
@@ -0,0 +1,81 @@
+package com.capstone.meerkatai.anomalybehavior.service;
+
+import com.capstone.meerkatai.anomalybehavior.entity.AnomalyTypeCodeBackfillCheckpoint;
+import com.capstone.meerkatai.anomalybehavior.repository.AnomalyTypeCodeBackfillCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 유형 코드 컬럼이 추가되기 전에 저장된 이상행동의 anomaly_type_code를 채웁니다.
+ * <p>
+ * 서버 시작 시 코드가 비어 있는 행을 anomaly_id 순으로 CHUNK_SIZE건씩 읽어
+ * {@link AnomalyTypeClassifier}로 분류하고 JDBC 배치 UPDATE로 반영합니다.
+ * 키워드가 없어 분류되지 않는 행은 그대로 두되, 확인한 마지막 anomaly_id를 청크마다 기록하므로
+ * 다음 시작 시에는 그 이후에 저장된 행만 확인합니다.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AnomalyTypeCodeBackfill {
+
+    private static final String JOB_NAME = "anomaly-type-code";
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String SELECT_SQL =
+            "SELECT anomaly_id, anomaly_behavior_type FROM anomaly_behavior " +
+            "WHERE anomaly_type_code IS NULL AND anomaly_id > ? ORDER BY anomaly_id LIMIT ?";
+
+    private static final String UPDATE_SQL =
+            "UPDATE anomaly_behavior SET anomaly_type_code = ? WHERE anomaly_id = ? AND anomaly_type_code IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AnomalyTypeClassifier anomalyTypeClassifier;
+    private final AnomalyTypeCodeBackfillCheckpointRepository checkpointRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        AnomalyTypeCodeBackfillCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME)
+                .orElseGet(() -> AnomalyTypeCodeBackfillCheckpoint.builder()
+                        .jobName(JOB_NAME)
+                        .lastAnomalyId(0L)
+                        .build());
+        long lastId = checkpoint.getLastAnomalyId();
+        int updated = 0;
+
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(SELECT_SQL,
+                    (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getString(2)},
+                    lastId, CHUNK_SIZE);
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                Integer typeCode = anomalyTypeClassifier.classifyCode((String) row[1]);
+                if (typeCode != null) {
+                    updates.add(new Object[]{typeCode, row[0]});
+                }
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+                updated += updates.size();
+            }
+            lastId = (long) rows.get(rows.size() - 1)[0];
+            checkpoint.setLastAnomalyId(lastId);
+            checkpointRepository.save(checkpoint);
+        }
+
+        if (updated > 0) {
+            log.info("이상행동 유형 코드 백필 완료: updated={}", updated);
+        }
+    }
+}
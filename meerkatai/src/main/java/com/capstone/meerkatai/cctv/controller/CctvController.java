@@ -5,9 +5,7 @@ import com.capstone.meerkatai.cctv.entity.Cctv;
 import com.capstone.meerkatai.cctv.service.CctvService;
 import com.capstone.meerkatai.common.dto.ApiResponse;
 import com.capstone.meerkatai.common.exception.ResourceNotFoundException;
-import com.capstone.meerkatai.streamingvideo.entity.StreamingVideo;
-import com.capstone.meerkatai.streamingvideo.repository.StreamingVideoRepository;
-import com.capstone.meerkatai.streamingvideo.service.StreamingVideoService;
+import com.capstone.meerkatai.streamingvideo.service.StreamStatusRegistry;
 import com.capstone.meerkatai.user.entity.User;
 import com.capstone.meerkatai.user.repository.UserRepository;
 import org.springframework.security.core.Authentication;
@@ -37,8 +35,7 @@ public class CctvController {
 
     private final CctvService cctvService;
     private final UserRepository userRepository;
-    private final StreamingVideoRepository streamingVideoRepository;
-    private final StreamingVideoService streamingVideoService;
+    private final StreamStatusRegistry streamStatusRegistry;
 
     private Long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -63,18 +60,12 @@ public class CctvController {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
 
-        // ✅ 1. FastAPI에서 사용자 스트리밍 상태 먼저 동기화
-        streamingVideoService.updateStreamingStatusFromFastAPI(user.getUserId());
-
         List<Cctv> cctvs = cctvService.findByUserId(user.getUserId());
 
         List<CctvResponse> responses = cctvs.stream()
                 .map(cctv -> {
-                    // ✅ 해당 CCTV에 대한 스트리밍 상태 확인
-                    Boolean isActive = streamingVideoRepository
-                            .findByUserUserIdAndCctvCctvId(user.getUserId(), cctv.getCctvId())
-                            .map(StreamingVideo::getStreamingVideoStatus)
-                            .orElse(false); // 없으면 false
+                    // ✅ 해당 CCTV에 대한 스트리밍 상태 확인 (탐지 서버 콜백/보정으로 갱신되는 레지스트리, 없으면 false)
+                    Boolean isActive = streamStatusRegistry.isRunning(user.getUserId(), cctv.getCctvId());
 
                     return CctvResponse.builder()
                             .cctvId(cctv.getCctvId())
@@ -0,0 +1,61 @@
+package com.capstone.meerkatai.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 키셋(keyset) 페이지네이션용 커서입니다.
+ * <p>
+ * 마지막으로 반환한 행의 (시간, ID) 쌍을 담고 있으며, 클라이언트에는
+ * URL-safe Base64로 인코딩된 불투명(opaque) 문자열로 전달됩니다.
+ * 다음 페이지는 이 값보다 "앞선" 행만 조회하므로 OFFSET 없이 인덱스를 따라 읽습니다.
+ * </p>
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime time;
+    private final Long id;
+
+    /**
+     * 커서를 클라이언트에 전달할 문자열로 인코딩합니다.
+     *
+     * @return URL-safe Base64 문자열
+     */
+    public String encode() {
+        String raw = time.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 클라이언트가 보낸 커서 문자열을 해석합니다.
+     *
+     * @param cursor 인코딩된 커서 (null 또는 빈 문자열이면 첫 페이지)
+     * @return 해석된 커서, 첫 페이지인 경우 null
+     * @throws IllegalArgumentException 커서 형식이 올바르지 않은 경우
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, index)),
+                    Long.parseLong(raw.substring(index + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("유효하지 않은 커서입니다: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.capstone.meerkatai.common.dto;
+
+import com.amazonaws.services.s3.model.ObjectMetadata;
+
+import java.util.Map;
+
+/**
+ * S3 객체 HEAD 조회 결과 중 수집 경로에서 사용하는 값만 담은 불변 객체
+ *
+ * @param size 파일 크기 (바이트)
+ * @param contentType 콘텐츠 타입
+ * @param userMetadata 사용자 정의 메타데이터 (x-amz-meta-*)
+ * @param eTag 객체 ETag
+ */
+public record S3ObjectInfo(long size, String contentType, Map<String, String> userMetadata, String eTag) {
+
+    public static S3ObjectInfo from(ObjectMetadata metadata) {
+        Map<String, String> userMetadata = metadata.getUserMetadata();
+        return new S3ObjectInfo(
+                metadata.getContentLength(),
+                metadata.getContentType(),
+                userMetadata != null ? Map.copyOf(userMetadata) : Map.of(),
+                metadata.getETag());
+    }
+}
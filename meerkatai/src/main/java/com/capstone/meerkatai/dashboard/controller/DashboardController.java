@@ -1,14 +1,19 @@
 package com.capstone.meerkatai.dashboard.controller;
 
-import com.capstone.meerkatai.dashboard.entity.Dashboard;
+import com.capstone.meerkatai.dashboard.dto.DashboardGranularity;
+import com.capstone.meerkatai.dashboard.dto.MonthlyDashboard;
 import com.capstone.meerkatai.dashboard.service.DashboardService;
 import com.capstone.meerkatai.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,18 +36,44 @@ public class DashboardController {
                 .getUserId();
     }
 
+    // 결과가 바뀌지 않았으면(If-None-Match 일치) 본문 없이 304 Not Modified 반환
     @GetMapping("/{date}")
     public ResponseEntity<Map<String, Object>> getMonthlyDashboard(
-            @PathVariable("date") String yyyyMM
+            @PathVariable("date") String yyyyMM,
+            WebRequest webRequest
     ) {
         Long userId = getCurrentUserId();  // JWT 기반 사용자 식별
-        List<Map<String, Object>> result = dashboardService.getMonthlyDashboard(yyyyMM, userId);
+        MonthlyDashboard result = dashboardService.getMonthlyDashboard(yyyyMM, userId);
+
+        if (webRequest.checkNotModified(result.eTag())) {
+            return null;
+        }
 
         Map<String, Object> response = new HashMap<>();
         response.put("status", "success");
-        response.put("data", result);  // ✅ 리스트가 "data" 안에 들어감
+        response.put("data", result.data());  // ✅ 리스트가 "data" 안에 들어감
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(response);
     }
 
-}
\ No newline at end of file
+    // 기간 통계 조회 (일/주/월 단위 합계)
+    // GET: http://localhost:8080/api/v1/calendar/stats?from=2025-01-01&to=2025-12-31&granularity=month
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getDashboardStats(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity
+    ) {
+        Long userId = getCurrentUserId();
+        List<Map<String, Object>> result = dashboardService.getDashboardStats(
+                userId, from, to, DashboardGranularity.from(granularity));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("data", result);
+
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,56 @@
+package com.capstone.meerkatai.dashboard.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * 대시보드 통계 집계 단위
+ * <p>
+ * 각 단위는 날짜를 구간 시작일(일: 그날, 주: 월요일, 월: 1일)로 묶으며,
+ * SQL GROUP BY 식과 Java 변환이 같은 구간을 만들도록 짝지어 둡니다.
+ * </p>
+ */
+public enum DashboardGranularity {
+    DAY("time"),
+    WEEK("DATE_SUB(time, INTERVAL WEEKDAY(time) DAY)"),
+    MONTH("DATE_SUB(time, INTERVAL DAYOFMONTH(time) - 1 DAY)");
+
+    private final String bucketSql;
+
+    DashboardGranularity(String bucketSql) {
+        this.bucketSql = bucketSql;
+    }
+
+    /**
+     * dashboard.time 컬럼을 구간 시작일로 바꾸는 SQL 식
+     */
+    public String getBucketSql() {
+        return bucketSql;
+    }
+
+    /**
+     * 날짜가 속한 구간의 시작일
+     */
+    public LocalDate bucketOf(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * 요청 파라미터 값("day", "week", "month")으로 집계 단위를 찾습니다.
+     *
+     * @throws IllegalArgumentException 지원하지 않는 값인 경우
+     */
+    public static DashboardGranularity from(String value) {
+        for (DashboardGranularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(value)) {
+                return granularity;
+            }
+        }
+        throw new IllegalArgumentException("지원하지 않는 집계 단위입니다: " + value);
+    }
+}
@@ -0,0 +1,13 @@
+package com.capstone.meerkatai.dashboard.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 월간 캘린더 대시보드 조회 결과
+ *
+ * @param data 날짜별 유형 카운트 목록 ({"date": "YYYY-MM-DD", "typeNCount": n, ...})
+ * @param eTag 결과 내용의 해시 (HTTP ETag, 따옴표 제외)
+ */
+public record MonthlyDashboard(List<Map<String, Object>> data, String eTag) {
+}
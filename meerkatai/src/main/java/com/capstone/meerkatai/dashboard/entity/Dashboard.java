@@ -5,10 +5,21 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 
+/**
+ * 대시보드 일별 유형 카운트 (사용자, 날짜, 유형 코드)당 한 행
+ * <p>
+ * 유형마다 컬럼을 두지 않고 유형 코드를 키로 사용하므로 새 이상행동 유형이 추가되어도
+ * 스키마를 바꿀 필요가 없습니다. 카운트 증가는 {@code DashboardCounterBuffer}가
+ * INSERT ... ON DUPLICATE KEY UPDATE 한 문장으로 반영합니다.
+ * </p>
+ */
 @Entity
 @Getter @Setter @NoArgsConstructor
+@Table(name = "dashboard_type_count", uniqueConstraints = {
+        // 사용자/날짜/유형당 한 행 (카운트 버퍼의 UPSERT 대상 키)
+        @UniqueConstraint(name = "uk_dashboard_type_count_user_time_type", columnNames = {"user_id", "time", "type_code"})
+})
 public class Dashboard {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -17,22 +28,14 @@ public class Dashboard {
     @Column(nullable = false)
     private LocalDate time;
 
+    // 이상행동 표준 유형 코드 (AnomalyBehaviorType)
+    @Column(name = "type_code", nullable = false)
+    private Integer typeCode;
+
     @Column(nullable = false)
-    private Integer type1Count;
-    @Column(nullable = false)
-    private Integer type2Count;
-    @Column(nullable = false)
-    private Integer type3Count;
-    @Column(nullable = false)
-    private Integer type4Count;
-    @Column(nullable = false)
-    private Integer type5Count;
-    @Column(nullable = false)
-    private Integer type6Count;
-    @Column(nullable = false)
-    private Integer type7Count;
+    private Long anomalyCount;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
-}
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package com.capstone.meerkatai.dashboard.repository;
+
+import com.capstone.meerkatai.dashboard.dto.DashboardGranularity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 기간별 대시보드 통계를 SQL GROUP BY로 집계하는 레포지토리입니다.
+ * <p>
+ * dashboard_type_count 테이블은 이미 (사용자, 날짜, 유형)당 한 행으로 집계되어 있으므로
+ * uk_dashboard_type_count_user_time_type 인덱스 범위를 한 번 읽어 DB에서 구간/유형별로 합산합니다.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class DashboardStatsRepository {
+
+    private static final String SELECT_SQL =
+            "SELECT %s AS bucket, type_code, SUM(anomaly_count) FROM dashboard_type_count " +
+            "WHERE user_id = ? AND time BETWEEN ? AND ? GROUP BY bucket, type_code ORDER BY bucket";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 구간별 유형 카운트 합계를 조회합니다.
+     *
+     * @param userId      사용자 ID
+     * @param start       조회 시작 날짜 (포함)
+     * @param end         조회 종료 날짜 (포함)
+     * @param granularity 집계 단위
+     * @return 구간 시작일 순, 유형 코드별 합계
+     */
+    public Map<LocalDate, Map<Integer, Long>> sumByPeriod(Long userId, LocalDate start, LocalDate end,
+                                                          DashboardGranularity granularity) {
+        Map<LocalDate, Map<Integer, Long>> result = new LinkedHashMap<>();
+        jdbcTemplate.query(String.format(SELECT_SQL, granularity.getBucketSql()), rs -> {
+            result.computeIfAbsent(rs.getDate(1).toLocalDate(), period -> new HashMap<>())
+                    .put(rs.getInt(2), rs.getLong(3));
+        }, userId, Date.valueOf(start), Date.valueOf(end));
+        return result;
+    }
+}
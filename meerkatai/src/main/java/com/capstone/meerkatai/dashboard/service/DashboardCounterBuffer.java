@@ -0,0 +1,220 @@
+package com.capstone.meerkatai.dashboard.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * 대시보드 일별 카운트 증가분을 메모리에 모았다가 주기적으로 DB에 반영하는 버퍼입니다.
+ * <p>
+ * (사용자, 날짜, 유형 코드) 키마다 {@link LongAdder}를 두어 동시에 들어오는 이벤트가
+ * 같은 dashboard_type_count 행을 두고 경합하지 않게 하고, flush 시 키당 한 번의
+ * UPSERT(INSERT ... ON DUPLICATE KEY UPDATE)로 누적된 증가분을 더합니다.
+ * 조회 없이 한 문장으로 더하므로 동시에 반영되어도 증가분이 유실되지 않습니다.
+ * </p>
+ * <p>
+ * flush는 쓰기 락, 조회({@link #readConsistent})는 읽기 락을 잡으므로 조회 시점에
+ * "DB 값 + 아직 반영되지 않은 증가분"이 중복이나 누락 없이 합산됩니다.
+ * 증가는 키 단위로만 동기화되며 flush 락을 잡지 않습니다.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardCounterBuffer {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO dashboard_type_count (user_id, time, type_code, anomaly_count) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE anomaly_count = anomaly_count + VALUES(anomaly_count)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<Key, LongAdder> pending = new ConcurrentHashMap<>();
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 유형 카운트를 1 증가시킵니다.
+     *
+     * @param userId   사용자 ID
+     * @param date     이상행동 발생 날짜
+     * @param typeCode 이상행동 표준 유형 코드
+     */
+    public void increment(Long userId, LocalDate date, int typeCode) {
+        add(new Key(userId, date, typeCode), 1);
+    }
+
+    /**
+     * flush와 겹치지 않게 DB 조회를 수행하고, 조회 직후의 미반영 증가분을 함께 돌려줍니다.
+     *
+     * @param userId 사용자 ID
+     * @param start  조회 시작 날짜 (포함)
+     * @param end    조회 종료 날짜 (포함)
+     * @param query  DB 조회
+     * @return DB 조회 결과와 날짜별/유형 코드별 미반영 증가분
+     */
+    public <T> Snapshot<T> readConsistent(Long userId, LocalDate start, LocalDate end, Supplier<T> query) {
+        flushLock.readLock().lock();
+        try {
+            T persisted = query.get();
+
+            Map<LocalDate, Map<Integer, Long>> deltas = new HashMap<>();
+            pending.forEach((key, adder) -> {
+                if (key.userId().equals(userId) && !key.date().isBefore(start) && !key.date().isAfter(end)) {
+                    deltas.computeIfAbsent(key.date(), date -> new HashMap<>())
+                            .merge(key.typeCode(), adder.sum(), Long::sum);
+                }
+            });
+            return new Snapshot<>(persisted, deltas);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 누적된 증가분을 DB에 반영합니다. 실패한 증가분은 버퍼에 되돌려 다음 주기에 재시도합니다.
+     */
+    @Scheduled(fixedDelayString = "${dashboard.counter.flush-interval-ms:2000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        flushLock.writeLock().lock();
+        try {
+            // 키별로 증가분을 꺼내며 제거 (이후 들어온 증가는 새 키로 다시 쌓임)
+            List<Key> keys = new ArrayList<>();
+            List<Long> deltas = new ArrayList<>();
+            for (Key key : new ArrayList<>(pending.keySet())) {
+                pending.computeIfPresent(key, (k, adder) -> {
+                    keys.add(k);
+                    deltas.add(adder.sum());
+                    return null;
+                });
+            }
+
+            if (keys.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> upsertAll(keys, deltas));
+                log.debug("대시보드 카운트 반영 완료: keys={}", keys.size());
+            } catch (DataAccessException e) {
+                // 한 키 때문에 전체가 롤백된 경우 키별로 다시 반영해 문제 키만 걸러냄
+                log.warn("대시보드 카운트 일괄 반영 실패, 키별 반영으로 전환: keys={}", keys.size(), e);
+                upsertEach(keys, deltas);
+            } catch (RuntimeException e) {
+                // 트랜잭션 시작/커밋 실패 등 - 꺼낸 증가분을 모두 되돌려 다음 주기에 재시도
+                log.warn("대시보드 카운트 반영 실패, 다음 주기에 재시도: keys={}", keys.size(), e);
+                restore(keys, deltas, 0);
+            }
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+        if (!pending.isEmpty()) {
+            // 종료 시점에도 반영하지 못한 증가분은 복구 수단이 없으므로 기록으로 남김
+            pending.forEach((key, adder) -> log.error("종료 시 대시보드 카운트 미반영: userId={}, date={}, typeCode={}, count={}",
+                    key.userId(), key.date(), key.typeCode(), adder.sum()));
+        }
+    }
+
+    private void upsertAll(List<Key> keys, List<Long> deltas) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                setUpsertValues(ps, keys.get(i), deltas.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return keys.size();
+            }
+        });
+    }
+
+    private void upsertEach(List<Key> keys, List<Long> deltas) {
+        for (int i = 0; i < keys.size(); i++) {
+            Key key = keys.get(i);
+            long count = deltas.get(i);
+            try {
+                jdbcTemplate.update(UPSERT_SQL, ps -> setUpsertValues(ps, key, count));
+            } catch (DataIntegrityViolationException e) {
+                // 탈퇴한 사용자 등 다시 시도해도 성공할 수 없는 키만 버림
+                log.error("대시보드 카운트 반영 불가, 증가분 폐기: userId={}, date={}, typeCode={}",
+                        key.userId(), key.date(), key.typeCode(), e);
+            } catch (RuntimeException e) {
+                // 연결 문제 등은 남은 키도 실패할 가능성이 높으므로 나머지를 모두 되돌림
+                log.warn("대시보드 카운트 반영 실패, 다음 주기에 재시도: userId={}, date={}, typeCode={}",
+                        key.userId(), key.date(), key.typeCode(), e);
+                restore(keys, deltas, i);
+                return;
+            }
+        }
+    }
+
+    private void restore(List<Key> keys, List<Long> deltas, int from) {
+        for (int i = from; i < keys.size(); i++) {
+            add(keys.get(i), deltas.get(i));
+        }
+    }
+
+    private void setUpsertValues(PreparedStatement ps, Key key, long count) throws SQLException {
+        ps.setLong(1, key.userId());
+        ps.setDate(2, Date.valueOf(key.date()));
+        ps.setInt(3, key.typeCode());
+        ps.setLong(4, count);
+    }
+
+    // compute로 더해 flush가 같은 키를 꺼내 가는 동안 증가분이 유실되지 않게 함
+    private void add(Key key, long count) {
+        pending.compute(key, (k, adder) -> {
+            LongAdder target = adder != null ? adder : new LongAdder();
+            target.add(count);
+            return target;
+        });
+    }
+
+    private record Key(Long userId, LocalDate date, int typeCode) {
+    }
+
+    /**
+     * DB 조회 결과와 날짜별 미반영 증가분
+     */
+    public record Snapshot<T>(T persisted, Map<LocalDate, Map<Integer, Long>> deltas) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.capstone.meerkatai.dashboard.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 유형별 컬럼(type1_count ~ type7_count)을 쓰던 이전 dashboard 테이블의 카운트를
+ * dashboard_type_count 테이블로 옮깁니다.
+ * <p>
+ * 서버 시작 시 한 트랜잭션 안에서 유형마다 INSERT ... SELECT로 더한 뒤 옮긴 행을 삭제하므로,
+ * 여러 번 실행되어도 중복 집계되지 않고 그 사이 새로 반영된 카운트와도 합산됩니다.
+ * 이전 테이블이 없거나 비어 있으면 아무것도 하지 않습니다.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardLegacyMigration {
+
+    private static final int LEGACY_TYPE_COUNT = 7;
+
+    private static final String LEGACY_TABLE_EXISTS_SQL =
+            "SELECT COUNT(*) FROM information_schema.tables " +
+            "WHERE table_schema = DATABASE() AND table_name = 'dashboard'";
+
+    private static final String MOVE_SQL =
+            "INSERT INTO dashboard_type_count (user_id, time, type_code, anomaly_count) " +
+            "SELECT user_id, time, %d, type%d_count FROM dashboard WHERE type%d_count > 0 " +
+            "ON DUPLICATE KEY UPDATE anomaly_count = anomaly_count + VALUES(anomaly_count)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final DashboardMonthCache dashboardMonthCache;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        Integer tables = jdbcTemplate.queryForObject(LEGACY_TABLE_EXISTS_SQL, Integer.class);
+        if (tables == null || tables == 0) {
+            return;
+        }
+
+        Integer rows = new TransactionTemplate(transactionManager).execute(status -> {
+            for (int typeCode = 1; typeCode <= LEGACY_TYPE_COUNT; typeCode++) {
+                jdbcTemplate.update(String.format(MOVE_SQL, typeCode, typeCode, typeCode));
+            }
+            return jdbcTemplate.update("DELETE FROM dashboard");
+        });
+
+        if (rows != null && rows > 0) {
+            // 이전 카운트가 빠진 채 캐시된 결과가 있을 수 있으므로 모두 비움
+            dashboardMonthCache.invalidateAll();
+            log.info("이전 대시보드 카운트 이관 완료: rows={}", rows);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.capstone.meerkatai.dashboard.service;
+
+import com.capstone.meerkatai.dashboard.dto.MonthlyDashboard;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * 사용자별 월간 캘린더 대시보드 결과 캐시입니다.
+ * <p>
+ * 카운트가 증가하면 해당 날짜가 속한 (사용자, 월) 항목만 무효화합니다.
+ * 지난 달은 늦게 도착한 이벤트가 없는 한 바뀌지 않으므로 만료 없이 유지하고,
+ * 이번 달은 current-month-ttl-seconds 동안만 재사용합니다.
+ * 최대 항목 수를 넘으면 만료된 항목, 오래 조회되지 않은 항목 순으로 정리합니다.
+ * </p>
+ * <p>
+ * 조회 중에 무효화가 일어나면 조회 결과를 캐시에 넣지 않도록 버전을 비교하므로,
+ * 무효화 이전 값이 무효화 이후에 저장되는 일이 없습니다. 버전은 키 해시로 나눈
+ * 고정 개수의 슬롯에 보관하므로 캐시 항목이 정리된 뒤에도 메모리가 늘어나지 않으며,
+ * 같은 슬롯을 쓰는 다른 키의 무효화는 조회 결과를 한 번 저장하지 않게 할 뿐입니다.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardMonthCache {
+
+    private static final int VERSION_SLOTS = 1024;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${dashboard.cache.current-month-ttl-seconds:60}")
+    private long currentMonthTtlSeconds;
+
+    @Value("${dashboard.cache.max-size:10000}")
+    private int maxSize;
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    // 키 해시별 무효화 버전 (슬롯 수 고정)
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_SLOTS);
+    // 전체 무효화 횟수
+    private final AtomicLong epoch = new AtomicLong();
+
+    /**
+     * 캐시된 결과를 반환하고, 없거나 만료되었으면 loader로 조회해 저장합니다.
+     *
+     * @param userId 사용자 ID
+     * @param month  조회 월
+     * @param loader 캐시에 없을 때 실행할 조회
+     * @return 조회 결과와 ETag
+     */
+    public MonthlyDashboard get(Long userId, YearMonth month, Supplier<List<Map<String, Object>>> loader) {
+        Key key = new Key(userId, month);
+        long now = System.currentTimeMillis();
+
+        Entry cached = entries.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            cached.touch(now);
+            return cached.value();
+        }
+
+        long epochAtLoad = epoch.get();
+        int slot = versionSlot(key);
+        long version = versions.get(slot);
+        List<Map<String, Object>> data = loader.get();
+        MonthlyDashboard value = new MonthlyDashboard(data, eTagOf(data));
+
+        long expiresAt = month.isBefore(YearMonth.now())
+                ? Long.MAX_VALUE
+                : now + currentMonthTtlSeconds * 1000;
+        // 조회하는 동안 무효화되지 않은 경우에만 저장
+        entries.compute(key, (k, old) ->
+                epoch.get() == epochAtLoad && versions.get(slot) == version
+                        ? new Entry(value, expiresAt, now)
+                        : old);
+        evictIfFull();
+        return value;
+    }
+
+    /**
+     * 날짜가 속한 월의 캐시를 무효화합니다.
+     *
+     * @param userId 사용자 ID
+     * @param date   카운트가 바뀐 날짜
+     */
+    public void invalidate(Long userId, LocalDate date) {
+        Key key = new Key(userId, YearMonth.from(date));
+        versions.incrementAndGet(versionSlot(key));
+        entries.remove(key);
+    }
+
+    /**
+     * 모든 캐시를 무효화합니다.
+     */
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        entries.clear();
+    }
+
+    // 최대 항목 수를 넘으면 만료된 항목, 오래 조회되지 않은 항목 순으로 정리
+    private void evictIfFull() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+
+        int excess = entries.size() - maxSize;
+        if (excess > 0) {
+            entries.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().accessedAt))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(entries::remove);
+        }
+    }
+
+    private static int versionSlot(Key key) {
+        return Math.floorMod(key.hashCode(), VERSION_SLOTS);
+    }
+
+    private String eTagOf(List<Map<String, Object>> data) {
+        try {
+            return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(data));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("대시보드 ETag 생성 실패", e);
+        }
+    }
+
+    private record Key(Long userId, YearMonth month) {
+    }
+
+    private static final class Entry {
+
+        private final MonthlyDashboard value;
+        private final long expiresAt;
+        private volatile long accessedAt;
+
+        Entry(MonthlyDashboard value, long expiresAt, long accessedAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.accessedAt = accessedAt;
+        }
+
+        MonthlyDashboard value() {
+            return value;
+        }
+
+        long expiresAt() {
+            return expiresAt;
+        }
+
+        void touch(long now) {
+            accessedAt = now;
+        }
+    }
+}
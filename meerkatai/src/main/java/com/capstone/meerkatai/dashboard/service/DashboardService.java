@@ -1,92 +1,170 @@
 package com.capstone.meerkatai.dashboard.service;
 
-import com.capstone.meerkatai.alarm.dto.AnomalyVideoMetadataRequest;
+import com.capstone.meerkatai.anomalybehavior.entity.AnomalyBehavior;
+import com.capstone.meerkatai.anomalybehavior.entity.AnomalyBehaviorType;
+import com.capstone.meerkatai.dashboard.dto.DashboardGranularity;
+import com.capstone.meerkatai.dashboard.dto.MonthlyDashboard;
 import com.capstone.meerkatai.dashboard.entity.Dashboard;
 import com.capstone.meerkatai.dashboard.repository.DashboardRepository;
-import com.capstone.meerkatai.user.entity.User;
+import com.capstone.meerkatai.dashboard.repository.DashboardStatsRepository;
 import com.capstone.meerkatai.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
 
+    // 기간 통계 조회 최대 기간 (일)
+    private static final int MAX_STATS_RANGE_DAYS = 3 * 366;
+
     private final DashboardRepository dashboardRepository;
     private final UserRepository userRepository;
+    private final DashboardCounterBuffer dashboardCounterBuffer;
+    private final DashboardMonthCache dashboardMonthCache;
+    private final DashboardStatsRepository dashboardStatsRepository;
+
+    /**
+     * 이상행동 1건을 대시보드 일별 카운트에 반영합니다.
+     * <p>
+     * 카운트는 {@link DashboardCounterBuffer}에 누적되었다가 주기적으로 DB에 반영됩니다.
+     * 트랜잭션 안에서 호출되면 커밋된 경우에만 누적하므로 롤백 후 재시도해도 중복 집계되지 않습니다.
+     * 누적과 함께 해당 월의 캘린더 캐시를 무효화합니다.
+     * </p>
+     */
+    public void updateDashboardWithAnomaly(AnomalyBehavior behavior) {
+        // 수집 시 분류해 둔 유형 코드 사용 (분류되지 않은 유형은 집계하지 않음)
+        Integer typeCode = behavior.getAnomalyTypeCode();
+        if (typeCode == null) {
+            return;
+        }
+        Long userId = behavior.getUser().getUserId();
+        LocalDate date = behavior.getAnomalyTime().toLocalDate();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(userId, date, typeCode);
+                }
+            });
+        } else {
+            increment(userId, date, typeCode);
+        }
+    }
+
+    private void increment(Long userId, LocalDate date, int typeCode) {
+        dashboardCounterBuffer.increment(userId, date, typeCode);
+        dashboardMonthCache.invalidate(userId, date);
+    }
 
-    public void updateDashboardWithAnomaly(AnomalyVideoMetadataRequest request) {
-        Long userId = request.getUserId();
-        LocalDate date = request.getTimestamp().toLocalDate();
-        String anomalyType = request.getAnomalyType(); // 예: "절도 감지", "폭행 의심", "파손 흔적"
-
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("사용자 없음"));
-
-        Optional<Dashboard> optional = dashboardRepository.findByUserAndTime(user, date);
-
-        Dashboard dashboard = optional.orElseGet(() -> {
-            Dashboard newEntry = new Dashboard();
-            newEntry.setUser(user);
-            newEntry.setTime(date);
-            newEntry.setType1Count(0);
-            newEntry.setType2Count(0);
-            newEntry.setType3Count(0);
-            newEntry.setType4Count(0);
-            newEntry.setType5Count(0);
-            newEntry.setType6Count(0);
-            newEntry.setType7Count(0);
-            return newEntry;
-        });
-
-        // ✅ 포함 키워드 → 카운트 증가 로직
-        String lowerType = anomalyType.toLowerCase(); // 소문자 처리
-
-        if (lowerType.contains("전도")) dashboard.setType1Count(dashboard.getType1Count() + 1);
-        if (lowerType.contains("파손")) dashboard.setType2Count(dashboard.getType2Count() + 1);
-        if (lowerType.contains("방화")) dashboard.setType3Count(dashboard.getType3Count() + 1);
-        if (lowerType.contains("흡연")) dashboard.setType4Count(dashboard.getType4Count() + 1);
-        if (lowerType.contains("유기")) dashboard.setType5Count(dashboard.getType5Count() + 1);
-        if (lowerType.contains("절도")) dashboard.setType6Count(dashboard.getType6Count() + 1);
-        if (lowerType.contains("폭행")) dashboard.setType7Count(dashboard.getType7Count() + 1);
-
-        dashboardRepository.save(dashboard);
+    /**
+     * 월간 캘린더 대시보드를 조회합니다. (사용자/월 단위 결과 캐시 사용)
+     *
+     * @param yyyyMM 조회 월 (yyyy-MM)
+     * @param userId 사용자 ID
+     * @return 날짜별 유형 카운트와 ETag
+     */
+    public MonthlyDashboard getMonthlyDashboard(String yyyyMM, Long userId) {
+        YearMonth yearMonth = YearMonth.parse(yyyyMM);
+        return dashboardMonthCache.get(userId, yearMonth, () -> loadMonthlyDashboard(yearMonth, userId));
     }
 
-    public List<Map<String, Object>> getMonthlyDashboard(String yyyyMM, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("사용자 없음"));
+    private List<Map<String, Object>> loadMonthlyDashboard(YearMonth yearMonth, Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("사용자 없음");
+        }
 
-        // yyyy-MM 문자열을 LocalDate로 파싱
-        YearMonth yearMonth = YearMonth.parse(yyyyMM); // java.time.YearMonth
         LocalDate startDate = yearMonth.atDay(1);
         LocalDate endDate = yearMonth.atEndOfMonth();
 
-        // DashboardRepository에서 LocalDate 기반 조회
-        List<Dashboard> dashboards = dashboardRepository.findByUserAndTimeBetween(user, startDate, endDate);
+        // DashboardRepository 조회 결과 + 아직 DB에 반영되지 않은 카운트 합산
+        DashboardCounterBuffer.Snapshot<List<Dashboard>> snapshot = dashboardCounterBuffer.readConsistent(
+                userId, startDate, endDate,
+                () -> dashboardRepository.findByUserUserIdAndTimeBetween(userId, startDate, endDate));
+
+        Map<LocalDate, Map<Integer, Long>> countsByDate = new TreeMap<>();
+        for (Dashboard dash : snapshot.persisted()) {
+            addCount(countsByDate, dash.getTime(), dash.getTypeCode(), dash.getAnomalyCount());
+        }
+        snapshot.deltas().forEach((date, deltas) ->
+                deltas.forEach((typeCode, count) -> addCount(countsByDate, date, typeCode, count)));
 
         List<Map<String, Object>> result = new ArrayList<>();
 
-        for (Dashboard dash : dashboards) {
+        for (Map.Entry<LocalDate, Map<Integer, Long>> day : countsByDate.entrySet()) {
             Map<String, Object> entry = new HashMap<>();
-            entry.put("date", dash.getTime().toString()); // LocalDate → "YYYY-MM-DD"
+            entry.put("date", day.getKey().toString()); // LocalDate → "YYYY-MM-DD"
 
-            if (dash.getType1Count() > 0) entry.put("type1Count", dash.getType1Count());
-            if (dash.getType2Count() > 0) entry.put("type2Count", dash.getType2Count());
-            if (dash.getType3Count() > 0) entry.put("type3Count", dash.getType3Count());
-            if (dash.getType4Count() > 0) entry.put("type4Count", dash.getType4Count());
-            if (dash.getType5Count() > 0) entry.put("type5Count", dash.getType5Count());
-            if (dash.getType6Count() > 0) entry.put("type6Count", dash.getType6Count());
-            if (dash.getType7Count() > 0) entry.put("type7Count", dash.getType7Count());
+            day.getValue().forEach((typeCode, count) -> {
+                if (count > 0) entry.put("type" + typeCode + "Count", count.intValue());
+            });
 
             if (entry.size() > 1) result.add(entry); // date 외 카운트가 있는 경우만 추가
         }
 
+        return List.copyOf(result);
+    }
+
+    /**
+     * 임의 기간의 유형별 카운트를 일/주/월 단위로 집계합니다.
+     * DB에서 GROUP BY로 합산한 뒤 아직 DB에 반영되지 않은 카운트를 같은 구간에 더합니다.
+     *
+     * @param userId      사용자 ID
+     * @param start       조회 시작 날짜 (포함)
+     * @param end         조회 종료 날짜 (포함)
+     * @param granularity 집계 단위
+     * @return 구간별 카운트 목록 ({"period": 구간 시작일, "typeNCount": n, "totalCount": n})
+     */
+    public List<Map<String, Object>> getDashboardStats(Long userId, LocalDate start, LocalDate end,
+                                                       DashboardGranularity granularity) {
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("조회 시작 날짜가 종료 날짜보다 늦습니다.");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_STATS_RANGE_DAYS) {
+            throw new IllegalArgumentException("조회 기간은 최대 " + MAX_STATS_RANGE_DAYS + "일입니다.");
+        }
+
+        DashboardCounterBuffer.Snapshot<Map<LocalDate, Map<Integer, Long>>> snapshot = dashboardCounterBuffer.readConsistent(
+                userId, start, end,
+                () -> dashboardStatsRepository.sumByPeriod(userId, start, end, granularity));
+
+        Map<LocalDate, Map<Integer, Long>> countsByPeriod = new TreeMap<>();
+        snapshot.persisted().forEach((period, counts) ->
+                counts.forEach((typeCode, count) -> addCount(countsByPeriod, period, typeCode, count)));
+        snapshot.deltas().forEach((date, deltas) ->
+                deltas.forEach((typeCode, count) -> addCount(countsByPeriod, granularity.bucketOf(date), typeCode, count)));
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map.Entry<LocalDate, Map<Integer, Long>> period : countsByPeriod.entrySet()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("period", period.getKey().toString());
+
+            // 표준 유형은 0건이어도 포함하고, 그 외 유형 코드는 있는 경우만 포함
+            Map<Integer, Long> counts = new TreeMap<>(period.getValue());
+            for (AnomalyBehaviorType type : AnomalyBehaviorType.values()) {
+                counts.putIfAbsent(type.getCode(), 0L);
+            }
+
+            long total = 0;
+            for (Map.Entry<Integer, Long> count : counts.entrySet()) {
+                entry.put("type" + count.getKey() + "Count", count.getValue());
+                total += count.getValue();
+            }
+            entry.put("totalCount", total);
+            result.add(entry);
+        }
         return result;
     }
 
+    private static void addCount(Map<LocalDate, Map<Integer, Long>> counts, LocalDate date, int typeCode, long count) {
+        counts.computeIfAbsent(date, key -> new TreeMap<>()).merge(typeCode, count, Long::sum);
+    }
 }
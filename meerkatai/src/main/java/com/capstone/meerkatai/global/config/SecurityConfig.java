@@ -53,14 +53,19 @@ public class SecurityConfig {
             //모든 cctv 경로, 로그인, 회원가입 이외 user 경로
             .requestMatchers("/api/v1/cctv/**","/api/v1/auth/reset-password",
                 "/api/v1/auth/info/**","/api/v1/auth/logout","/api/v1/auth/update",
-                "/api/v1/auth/withdraw").authenticated()
+                "/api/v1/auth/withdraw","/api/v1/anomalies/live","/api/v1/anomalies/user/**").authenticated()
             // 인증이 필요없는 API 경로 설정
             .requestMatchers(
                 "/api/v1/auth/register",
                 "/api/v1/auth/login",
                 "/api/v1/auth/refresh",
-                "/api/anomaly/notify"
+                "/api/anomaly/notify",
+                "/api/anomaly/notify/batch",
+                "/api/v1/streaming-video/callback"
             ).permitAll()
+            // Actuator는 health만 공개하고 지표(metrics) 등은 인증 필요
+            .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+            .requestMatchers("/actuator/**").authenticated()
             // 나머지 요청은 모두 허용
             .anyRequest().permitAll()
         )
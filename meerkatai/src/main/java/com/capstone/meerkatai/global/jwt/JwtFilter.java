@@ -18,6 +18,9 @@ import jakarta.servlet.http.HttpServletResponse;
 
 public class JwtFilter extends OncePerRequestFilter {
 
+  // 헤더를 설정할 수 없는 브라우저 EventSource용으로 ?token= 쿼리 파라미터를 허용하는 유일한 경로
+  private static final String LIVE_FEED_PATH = "/api/v1/anomalies/live";
+
   private final JwtUtil jwtUtil;
   private final UserDetailsService userDetailsService;
 
@@ -57,12 +60,16 @@ public class JwtFilter extends OncePerRequestFilter {
 
 
   //Authorization 헤더에서 JWT 토큰을 추출합니다. Bearer 토큰 형식: "Bearer {JWT토큰}"
+  //실시간 피드(GET /api/v1/anomalies/live)만 헤더가 없을 때 token 쿼리 파라미터를 사용합니다.
 
   private String extractToken(HttpServletRequest request) {
     String bearerToken = request.getHeader("Authorization");
     if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
       return bearerToken.substring(7);  // "Bearer " 제거
     }
+    if ("GET".equals(request.getMethod()) && LIVE_FEED_PATH.equals(request.getServletPath())) {
+      return request.getParameter("token");
+    }
     return null;
   }
 }
\ No newline at end of file
@@ -4,8 +4,11 @@ import com.amazonaws.HttpMethod;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.model.GeneratePresignedUrlRequest;
 import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3Object;
+import com.capstone.meerkatai.common.dto.S3ObjectInfo;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,12 +16,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -46,6 +54,54 @@ public class S3Service {
     @Value("${aws.s3.presigned-url.expiration-minutes}")
     private int presignedUrlExpirationMinutes;
 
+    // 캐시된 presigned URL을 재사용할 최소 잔여 유효시간 비율 (0.5 = 만료까지 절반 이상 남았을 때만 재사용)
+    @Value("${aws.s3.presigned-url.cache.min-remaining-ratio:0.5}")
+    private double presignedUrlMinRemainingRatio;
+
+    // 캐시에 보관할 최대 객체 키 수 (초과 시 가장 오래 사용되지 않은 항목부터 제거)
+    @Value("${aws.s3.presigned-url.cache.max-size:10000}")
+    private int presignedUrlCacheMaxSize;
+
+    // 객체 메타데이터(HEAD) 캐시 유지 시간
+    @Value("${aws.s3.metadata-cache.ttl-seconds:30}")
+    private long metadataCacheTtlSeconds;
+
+    // 객체 메타데이터 캐시 최대 항목 수
+    @Value("${aws.s3.metadata-cache.max-size:10000}")
+    private int metadataCacheMaxSize;
+
+    /**
+     * 객체 메타데이터 캐시 (객체 키 → 조회 결과)
+     * <p>
+     * 같은 키를 동시에 조회하면 먼저 등록된 조회 하나를 함께 기다리므로
+     * 수집 경로에서 객체당 S3 HEAD 요청은 최대 한 번만 나갑니다.
+     * </p>
+     */
+    private final Map<String, CachedObjectInfo> objectInfoCache = new ConcurrentHashMap<>();
+
+    /**
+     * 다운로드용 presigned URL 캐시 (객체 키 → 서명된 URL)
+     * <p>
+     * 조회 경로에 전역 잠금이 없도록 ConcurrentHashMap을 쓰고,
+     * 최대 항목 수를 넘으면 지난 구간의 항목부터 정리합니다.
+     * </p>
+     */
+    private final Map<String, CachedPresignedUrl> presignedUrlCache = new ConcurrentHashMap<>();
+
+    /**
+     * 만료 시각 정렬 단위 (밀리초)
+     */
+    private long presignedUrlBucketMillis;
+
+    @PostConstruct
+    void initPresignedUrlCache() {
+        long expirationMillis = TimeUnit.MINUTES.toMillis(presignedUrlExpirationMinutes);
+        double ratio = Math.min(Math.max(presignedUrlMinRemainingRatio, 0.0), 1.0);
+        presignedUrlBucketMillis = Math.max(1L, (long) (expirationMillis * (1.0 - ratio)));
+        log.info("Presigned URL 캐시 초기화: maxSize={}, bucket={}ms",
+                presignedUrlCacheMaxSize, presignedUrlBucketMillis);
+    }
+
     /**
      * 영상 파일 경로 생성
      * <p>
@@ -105,7 +161,49 @@ public class S3Service {
         }
         
         log.debug("프리사인드 URL 생성을 위한 객체 키 정규화: {}", objectKey);
-        return generatePresignedUrl(objectKey, HttpMethod.GET);
+
+        // 같은 시간 구간(bucket) 안에서는 이미 서명된 URL을 그대로 재사용
+        long now = System.currentTimeMillis();
+        long expiresAt = alignedExpiration(now);
+        CachedPresignedUrl cached = presignedUrlCache.get(objectKey);
+        if (cached != null && cached.expiresAt() == expiresAt) {
+            return cached.url();
+        }
+
+        URL url = generatePresignedUrl(objectKey, HttpMethod.GET, new Date(expiresAt));
+        presignedUrlCache.put(objectKey, new CachedPresignedUrl(url, expiresAt));
+        evictStalePresignedUrls(expiresAt);
+        return url;
+    }
+
+    // 최대 항목 수를 넘으면 지난 구간에서 서명한 항목부터 정리
+    private void evictStalePresignedUrls(long currentExpiresAt) {
+        if (presignedUrlCache.size() <= presignedUrlCacheMaxSize) {
+            return;
+        }
+        presignedUrlCache.values().removeIf(cached -> cached.expiresAt() != currentExpiresAt);
+        if (presignedUrlCache.size() > presignedUrlCacheMaxSize) {
+            // 모두 현재 구간 항목인 경우 초과분만 비움 (다음 조회 시 다시 서명됨)
+            int excess = presignedUrlCache.size() - presignedUrlCacheMaxSize;
+            Iterator<String> keys = presignedUrlCache.keySet().iterator();
+            while (excess-- > 0 && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * 현재 시각이 속한 시간 구간(bucket)의 시작 시각 + 유효시간을 만료 시각으로 사용합니다.
+     * <p>
+     * 같은 구간에서는 만료 시각이 동일하므로 이 인스턴스의 캐시 항목을 그대로 재사용할 수 있고,
+     * 재사용되는 URL은 항상 설정된 비율 이상의 유효시간이 남아 있습니다.
+     * 서명 시각(X-Amz-Date)은 인스턴스마다 다르므로 여러 인스턴스 간에 URL 문자열이 같아지지는 않습니다.
+     * </p>
+     */
+    private long alignedExpiration(long now) {
+        long bucketStart = now - (now % presignedUrlBucketMillis);
+        return bucketStart + TimeUnit.MINUTES.toMillis(presignedUrlExpirationMinutes);
     }
 
     /**
@@ -118,7 +216,18 @@ public class S3Service {
     private URL generatePresignedUrl(String objectKey, HttpMethod httpMethod) {
         Date expiration = new Date();
         expiration.setTime(expiration.getTime() + TimeUnit.MINUTES.toMillis(presignedUrlExpirationMinutes));
+        return generatePresignedUrl(objectKey, httpMethod, expiration);
+    }
 
+    /**
+     * 지정한 만료 시각으로 presigned URL 생성
+     *
+     * @param objectKey S3 객체 키
+     * @param httpMethod HTTP 메소드 (GET, PUT)
+     * @param expiration 만료 시각
+     * @return presigned URL
+     */
+    private URL generatePresignedUrl(String objectKey, HttpMethod httpMethod, Date expiration) {
         GeneratePresignedUrlRequest generatePresignedUrlRequest =
                 new GeneratePresignedUrlRequest(bucketName, objectKey)
                         .withMethod(httpMethod)
@@ -135,17 +244,11 @@ public class S3Service {
      * @param objectKey S3 객체 키
      */
     public void deleteObject(String objectKey) {
-        // URL 인코딩 문제 처리
-        if (objectKey.startsWith("/")) {
-            objectKey = objectKey.substring(1);
-        }
-        
-        // %2F 등의 인코딩된 문자가 포함된 경우 디코딩
-        if (objectKey.contains("%")) {
-            objectKey = URLDecoder.decode(objectKey, StandardCharsets.UTF_8);
-        }
-        
+        objectKey = normalizeKey(objectKey);
+
         amazonS3Client.deleteObject(bucketName, objectKey);
+        presignedUrlCache.remove(objectKey);
+        objectInfoCache.remove(objectKey);
         log.info("Deleted object: s3://{}/{}", bucketName, objectKey);
     }
     
@@ -257,16 +360,8 @@ public class S3Service {
      */
     public ObjectMetadata getObjectMetadata(String objectKey) {
         try {
-            // URL 인코딩 문제 처리
-            if (objectKey.startsWith("/")) {
-                objectKey = objectKey.substring(1);
-            }
-            
-            // %2F 등의 인코딩된 문자가 포함된 경우 디코딩
-            if (objectKey.contains("%")) {
-                objectKey = URLDecoder.decode(objectKey, StandardCharsets.UTF_8);
-            }
-            
+            objectKey = normalizeKey(objectKey);
+
             GetObjectMetadataRequest metadataRequest = new GetObjectMetadataRequest(bucketName, objectKey);
             ObjectMetadata metadata = amazonS3Client.getObjectMetadata(metadataRequest);
             log.info("S3 객체 메타데이터 조회 성공: key={}, contentLength={}", objectKey, metadata.getContentLength());
@@ -277,6 +372,94 @@ public class S3Service {
         }
     }
     
+    /**
+     * S3 객체 정보(크기, 콘텐츠 타입, 사용자 메타데이터, ETag)를 캐시를 통해 가져오기
+     * <p>
+     * 유효 시간 내의 조회 결과가 있으면 재사용하고, 같은 키를 동시에 조회하는 요청은
+     * 진행 중인 한 번의 HEAD 요청 결과를 공유합니다. 조회 실패는 캐시하지 않습니다.
+     * </p>
+     *
+     * @param objectKey S3 객체 키
+     * @return 객체 정보, 조회 실패 시 null
+     */
+    public S3ObjectInfo getObjectInfo(String objectKey) {
+        String key = normalizeKey(objectKey);
+        long now = System.currentTimeMillis();
+
+        CompletableFuture<S3ObjectInfo> created = new CompletableFuture<>();
+        CachedObjectInfo entry = objectInfoCache.compute(key, (k, existing) ->
+                existing != null && existing.expiresAt() > now ? existing : new CachedObjectInfo(created, Long.MAX_VALUE));
+
+        if (entry.future() == created) {
+            // 이 스레드가 조회 담당
+            S3ObjectInfo info = null;
+            try {
+                ObjectMetadata metadata = getObjectMetadata(key);
+                info = metadata != null ? S3ObjectInfo.from(metadata) : null;
+            } finally {
+                created.complete(info);
+                if (info != null) {
+                    long expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(metadataCacheTtlSeconds);
+                    objectInfoCache.replace(key, entry, new CachedObjectInfo(created, expiresAt));
+                } else {
+                    objectInfoCache.remove(key, entry);
+                }
+                evictExpiredObjectInfo();
+            }
+            return info;
+        }
+
+        try {
+            return entry.future().join();
+        } catch (CompletionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * S3 객체 존재 여부 확인 (캐시 사용 안 함)
+     * <p>
+     * 객체가 없으면 false를 반환하고, 네트워크 오류/스로틀링 등으로 확인할 수 없으면
+     * 예외를 그대로 던지므로 호출 측에서 일시적인 오류와 구분할 수 있습니다.
+     * </p>
+     *
+     * @param objectKey S3 객체 키
+     * @return 존재 여부
+     */
+    public boolean objectExists(String objectKey) {
+        return amazonS3Client.doesObjectExist(bucketName, normalizeKey(objectKey));
+    }
+
+    /**
+     * S3 객체의 일부 바이트 범위만 읽기 (HTTP Range GET)
+     *
+     * @param objectKey S3 객체 키
+     * @param start 시작 위치 (포함)
+     * @param end 끝 위치 (포함)
+     * @return 읽은 바이트 (객체 끝을 넘는 범위는 잘려서 반환)
+     * @throws IOException 객체 본문 읽기 실패 시
+     */
+    public byte[] readRange(String objectKey, long start, long end) throws IOException {
+        GetObjectRequest request = new GetObjectRequest(bucketName, normalizeKey(objectKey)).withRange(start, end);
+        try (S3Object object = amazonS3Client.getObject(request);
+             InputStream in = object.getObjectContent()) {
+            return in.readAllBytes();
+        }
+    }
+
+    // 최대 항목 수를 넘으면 만료된 항목부터 정리
+    private void evictExpiredObjectInfo() {
+        if (objectInfoCache.size() <= metadataCacheMaxSize) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        objectInfoCache.values().removeIf(cached -> cached.expiresAt() <= now);
+        if (objectInfoCache.size() > metadataCacheMaxSize) {
+            // 모두 유효한 경우 조회 중이 아닌 항목을 비움 (다음 조회 시 다시 채워짐)
+            objectInfoCache.values().removeIf(cached -> cached.future().isDone());
+        }
+    }
+
     /**
      * S3 객체의 파일 크기 가져오기
      * 
@@ -284,9 +467,9 @@ public class S3Service {
      * @return 파일 크기 (바이트)
      */
     public long getObjectSize(String objectKey) {
-        ObjectMetadata metadata = getObjectMetadata(objectKey);
-        if (metadata != null) {
-            return metadata.getContentLength();
+        S3ObjectInfo info = getObjectInfo(objectKey);
+        if (info != null) {
+            return info.size();
         }
         return 0;
     }
@@ -298,9 +481,9 @@ public class S3Service {
      * @return 콘텐츠 타입
      */
     public String getObjectContentType(String objectKey) {
-        ObjectMetadata metadata = getObjectMetadata(objectKey);
-        if (metadata != null) {
-            return metadata.getContentType();
+        S3ObjectInfo info = getObjectInfo(objectKey);
+        if (info != null) {
+            return info.contentType();
         }
         return null;
     }
@@ -312,10 +495,44 @@ public class S3Service {
      * @return 사용자 정의 메타데이터 맵
      */
     public Map<String, String> getUserMetadata(String objectKey) {
-        ObjectMetadata metadata = getObjectMetadata(objectKey);
-        if (metadata != null) {
-            return metadata.getUserMetadata();
+        S3ObjectInfo info = getObjectInfo(objectKey);
+        if (info != null) {
+            return info.userMetadata();
         }
         return null;
     }
+
+    /**
+     * 객체 키 정규화 (앞쪽 '/' 제거, %2F 등 인코딩 문자 디코딩)
+     */
+    private String normalizeKey(String objectKey) {
+        // URL 인코딩 문제 처리
+        if (objectKey.startsWith("/")) {
+            objectKey = objectKey.substring(1);
+        }
+
+        // %2F 등의 인코딩된 문자가 포함된 경우 디코딩
+        if (objectKey.contains("%")) {
+            objectKey = URLDecoder.decode(objectKey, StandardCharsets.UTF_8);
+        }
+        return objectKey;
+    }
+
+    /**
+     * 캐시된 객체 정보 항목
+     *
+     * @param future 조회 결과 (조회 중이면 미완료)
+     * @param expiresAt 만료 시각 (epoch millis, 조회 중이면 Long.MAX_VALUE)
+     */
+    private record CachedObjectInfo(CompletableFuture<S3ObjectInfo> future, long expiresAt) {
+    }
+
+    /**
+     * 캐시된 presigned URL 항목
+     *
+     * @param url 서명된 URL
+     * @param expiresAt 만료 시각 (epoch millis)
+     */
+    private record CachedPresignedUrl(URL url, long expiresAt) {
+    }
 } 
\ No newline at end of file
@@ -2,11 +2,22 @@ package com.capstone.meerkatai.storagespace.repository;
 
 import com.capstone.meerkatai.storagespace.entity.StorageSpace;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface StorageSpaceRepository extends JpaRepository<StorageSpace, Long> {
     Optional<StorageSpace> findByUserUserId(Long userId);
 
+    // 사용량 증감을 DB에서 원자적으로 반영 (0 미만으로 내려가지 않음)
+    // 호출 트랜잭션의 영속성 컨텍스트는 비우지 않고, 대기 중인 변경만 먼저 flush
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE StorageSpace s SET s.usedSpace = " +
+            "CASE WHEN s.usedSpace + :delta < 0 THEN 0 ELSE s.usedSpace + :delta END " +
+            "WHERE s.user.userId = :userId")
+    int addUsedSpace(@Param("userId") Long userId, @Param("delta") long delta);
+
     void deleteByUserUserId(Long userId);
-}
\ No newline at end of file
+}
@@ -2,17 +2,28 @@ package com.capstone.meerkatai.streamingvideo.controller;
 
 import com.capstone.meerkatai.cctv.entity.Cctv;
 import com.capstone.meerkatai.cctv.repository.CctvRepository;
+import com.capstone.meerkatai.common.dto.ApiResponse;
+import com.capstone.meerkatai.streamingvideo.dto.StreamStatusCallbackRequest;
+import com.capstone.meerkatai.streamingvideo.service.StreamStatusRegistry;
 import com.capstone.meerkatai.streamingvideo.service.StreamingVideoService;
 import com.capstone.meerkatai.user.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.HashMap;
 import java.util.Map;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/v1/streaming-video")
 @RequiredArgsConstructor
@@ -21,6 +32,18 @@ public class StreamingVideoController {
   private final StreamingVideoService streamingVideoService;
   private final UserRepository userRepository;
   private final CctvRepository cctvRepository;
+  private final StreamStatusRegistry streamStatusRegistry;
+
+  // 탐지 서버 상태 콜백 공유 토큰 (비어 있으면 모든 콜백 거부)
+  @Value("${detector.callback-token:}")
+  private String callbackToken;
+
+  @PostConstruct
+  void checkCallbackToken() {
+    if (callbackToken.isEmpty()) {
+      log.warn("detector.callback-token이 설정되지 않아 스트림 상태 콜백을 모두 거부합니다.");
+    }
+  }
 
   private Long getCurrentUserId() {
     Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -40,7 +63,7 @@ public class StreamingVideoController {
    */
 
   @PutMapping("/connect/{cctvId}")
-  public ResponseEntity<Map<String, String>> connectToCctv(@PathVariable Long cctvId) {
+  public Mono<ResponseEntity<Map<String, String>>> connectToCctv(@PathVariable Long cctvId) {
     //사용자 조회
     Long userId = getCurrentUserId();
 
@@ -65,23 +88,21 @@ public class StreamingVideoController {
     );
 
 
-    // 3. 연결 테스트 + 저장 + FastAPI 전송
-    //연결 요청
-    streamingVideoService.sendToFastAPI(userId, cctvId, rtspUrl);
-    //연결 성공 여부 확인 및 갱신
-    boolean connected = streamingVideoService.checkStreamingStatusFromFastAPIAndHandle(userId, cctvId, rtspUrl);
+    // 3. FastAPI 연결 요청 + 다른 CCTV 중지 요청(동시) + 저장
+    //    응답을 기다리는 동안 요청 스레드를 점유하지 않음
     //boolean connected = streamingVideoService.connectAndRegister(userId, cctvId, rtspUrl);
-
-    Map<String, String> response = new HashMap<>();
-    if (connected) {
-      response.put("status", "success");
-      response.put("message", "RTSP 연결 성공 및 연동 완료");
-      return ResponseEntity.ok(response);
-    } else {
-      response.put("status", "fail");
-      response.put("message", "RTSP 연결 실패");
-      return ResponseEntity.status(500).body(response);
-    }
+    return streamingVideoService.connect(userId, cctvId, rtspUrl).map(connected -> {
+      Map<String, String> response = new HashMap<>();
+      if (connected) {
+        response.put("status", "success");
+        response.put("message", "RTSP 연결 성공 및 연동 완료");
+        return ResponseEntity.ok(response);
+      } else {
+        response.put("status", "fail");
+        response.put("message", "RTSP 연결 실패");
+        return ResponseEntity.status(500).body(response);
+      }
+    });
   }
 
   /**
@@ -90,23 +111,63 @@ public class StreamingVideoController {
    * - FastAPI로 중지 요청 전달
    */
   @PutMapping("/disconnect/{cctvId}")
-  public ResponseEntity<Map<String, String>> disconnectFromCctv(@PathVariable Long cctvId) {
+  public Mono<ResponseEntity<Map<String, String>>> disconnectFromCctv(@PathVariable Long cctvId) {
     Long userId = getCurrentUserId();  // 현재 로그인된 사용자
 
-    boolean disconnected = streamingVideoService.disconnectAndNotify(userId, cctvId);
-
-    Map<String, String> response = new HashMap<>();
-    if (disconnected) {
-      response.put("status", "success");
-      response.put("message", "스트리밍 중지 완료");
-      return ResponseEntity.ok(response);
-    } else {
-      response.put("status", "fail");
-      response.put("message", "스트리밍 중지 실패 (FastAPI 요청 실패)");
-      return ResponseEntity.status(500).body(response);
-    }
+    return streamingVideoService.disconnect(userId, cctvId).map(disconnected -> {
+      Map<String, String> response = new HashMap<>();
+      if (disconnected) {
+        response.put("status", "success");
+        response.put("message", "스트리밍 중지 완료");
+        return ResponseEntity.ok(response);
+      } else {
+        response.put("status", "fail");
+        response.put("message", "스트리밍 중지 실패 (FastAPI 요청 실패)");
+        return ResponseEntity.status(500).body(response);
+      }
+    });
   }
 
+  /**
+   * FastAPI 탐지 서버가 스트림 시작/중지/실패 시 호출하는 상태 콜백
+   * POST : /api/v1/streaming-video/callback
+   * <p>
+   * 상태는 메모리 레지스트리에 바로 반영되고 DB에는 모아서 반영되므로 즉시 응답합니다.
+   * 공유 토큰이 설정되지 않았거나 일치하지 않으면 401을 반환합니다.
+   * </p>
+   *
+   * @param token   공유 토큰 (X-Detector-Token 헤더)
+   * @param request 상태 콜백 요청
+   * @return 처리 결과 (data: 상태 변경 여부)
+   */
+  @PostMapping("/callback")
+  public ResponseEntity<ApiResponse<Boolean>> handleStatusCallback(
+          @RequestHeader(value = "X-Detector-Token", required = false) String token,
+          @RequestBody StreamStatusCallbackRequest request) {
+    if (callbackToken.isEmpty() || token == null || !MessageDigest.isEqual(
+            callbackToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.error("Invalid detector token"));
+    }
+    if (request.getUserId() == null || request.getCctvId() == null || request.getStatus() == null) {
+      return ResponseEntity.badRequest().body(ApiResponse.error("user_id, cctv_id, status는 필수입니다."));
+    }
 
-}
+    boolean running;
+    switch (request.getStatus().toLowerCase()) {
+      case "started" -> running = true;
+      case "stopped" -> running = false;
+      case "failed" -> {
+        log.warn("탐지 서버 스트림 실패: userId={}, cctvId={}, message={}",
+                request.getUserId(), request.getCctvId(), request.getMessage());
+        running = false;
+      }
+      default -> {
+        return ResponseEntity.badRequest().body(ApiResponse.error("알 수 없는 상태입니다: " + request.getStatus()));
+      }
+    }
 
+    boolean changed = streamStatusRegistry.update(request.getUserId(), request.getCctvId(), running);
+    log.info("스트림 상태 콜백 수신: {}, changed={}", request, changed);
+    return ResponseEntity.ok(ApiResponse.success(changed));
+  }
+}
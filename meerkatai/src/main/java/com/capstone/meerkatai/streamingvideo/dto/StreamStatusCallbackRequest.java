@@ -0,0 +1,31 @@
+package com.capstone.meerkatai.streamingvideo.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * FastAPI 탐지 서버가 스트림 시작/중지/실패 시 보내는 상태 콜백 요청
+ */
+@Getter
+@ToString
+@NoArgsConstructor
+public class StreamStatusCallbackRequest {
+
+    @JsonProperty("user_id")
+    private Long userId;
+
+    @JsonProperty("cctv_id")
+    private Long cctvId;
+
+    /**
+     * 스트림 상태 (started, stopped, failed)
+     */
+    private String status;
+
+    /**
+     * 실패 사유 등 부가 메시지 (선택)
+     */
+    private String message;
+}
@@ -35,7 +35,7 @@ public class StreamingVideo {
      * 스트리밍 비디오를 소유한 사용자 정보입니다.
      * User 엔티티와 다대일(N:1) 관계로 연결됩니다.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -43,7 +43,7 @@ public class StreamingVideo {
      * 스트리밍 비디오가 녹화된 CCTV 정보입니다.
      * Cctv 엔티티와 다대일(N:1) 관계로 연결됩니다.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cctv_id")
     private Cctv cctv;
 
@@ -0,0 +1,156 @@
+package com.capstone.meerkatai.streamingvideo.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * FastAPI 탐지 서버에서 실행 중인 스트림 목록의 프로세스 공용 스냅샷
+ * <p>
+ * 실행 중(is_running)인 스트림을 (user_id, cctv_id) 키의 해시 집합으로 보관하므로
+ * 상태 확인은 원격 목록을 매번 훑지 않고 O(1) 조회로 끝납니다.
+ * 스냅샷은 ttl-ms 동안 재사용되며, 만료 후 동시에 들어온 요청은 진행 중인 조회 하나를
+ * 함께 기다립니다. (single-flight)
+ * </p>
+ * <p>
+ * 스트리밍 시작/중지 요청 후에는 {@link #invalidate()}로 이전 스냅샷과 그 이전에 시작된
+ * 조회 결과를 모두 버려, 다음 상태 확인이 요청 이후의 탐지 서버 상태를 보도록 합니다.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActiveStreamsSnapshot {
+
+    private final DetectorClient detectorClient;
+
+    @Value("${detector.active-streams.ttl-ms:2000}")
+    private long ttlMs;
+
+    private volatile Snapshot snapshot;
+    // 이 시각(System.nanoTime) 이전에 시작된 조회 결과는 사용하지 않음
+    private volatile long invalidatedAt = System.nanoTime();
+    private final AtomicReference<Flight> inFlight = new AtomicReference<>();
+
+    /**
+     * 스트림 키 (사용자 ID, CCTV ID)
+     */
+    public record StreamKey(Long userId, Long cctvId) {
+    }
+
+    private record Snapshot(Set<StreamKey> running, long startedAt) {
+    }
+
+    private record Flight(long startedAt, CompletableFuture<Snapshot> future) {
+    }
+
+    /**
+     * 스트림이 실행 중인지 확인합니다. 유지 시간 안의 스냅샷이 있으면 원격 조회하지 않습니다.
+     *
+     * @param userId 사용자 ID
+     * @param cctvId CCTV ID
+     * @return 실행 중 여부
+     */
+    public boolean isRunning(Long userId, Long cctvId) {
+        return running().contains(new StreamKey(userId, cctvId));
+    }
+
+    /**
+     * 실행 중인 스트림 키 집합을 반환합니다. 유지 시간 안의 스냅샷이 있으면 원격 조회하지 않습니다.
+     *
+     * @return 실행 중인 스트림 키 집합 (변경 불가)
+     */
+    public Set<StreamKey> running() {
+        return load(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(ttlMs)).running();
+    }
+
+    /**
+     * 이 호출 이후에 시작된 조회 결과로 실행 중인 스트림 키 집합을 반환합니다.
+     * 동시에 호출되면 같은 조회를 함께 기다립니다.
+     *
+     * @return 실행 중인 스트림 키 집합 (변경 불가)
+     */
+    public Set<StreamKey> runningFresh() {
+        return load(System.nanoTime()).running();
+    }
+
+    /**
+     * 현재 스냅샷과 진행 중인 조회 결과를 무효화합니다.
+     */
+    public void invalidate() {
+        invalidatedAt = System.nanoTime();
+    }
+
+    private Snapshot load(long notBefore) {
+        while (true) {
+            long threshold = Math.max(notBefore, invalidatedAt);
+
+            Snapshot current = snapshot;
+            if (current != null && current.startedAt() - threshold >= 0) {
+                return current;
+            }
+
+            Flight flight = inFlight.get();
+            if (flight != null) {
+                Snapshot joined = await(flight);
+                if (flight.startedAt() - threshold >= 0) {
+                    return joined;
+                }
+                continue; // 요청 시점 이전에 시작된 조회이면 새로 조회
+            }
+
+            Flight mine = new Flight(System.nanoTime(), new CompletableFuture<>());
+            if (!inFlight.compareAndSet(null, mine)) {
+                continue;
+            }
+            try {
+                Snapshot loaded = new Snapshot(fetch(), mine.startedAt());
+                Snapshot previous = snapshot;
+                if (previous == null || loaded.startedAt() - previous.startedAt() > 0) {
+                    snapshot = loaded;
+                }
+                mine.future().complete(loaded);
+                return loaded;
+            } catch (RuntimeException e) {
+                mine.future().completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.compareAndSet(mine, null);
+            }
+        }
+    }
+
+    private static Snapshot await(Flight flight) {
+        try {
+            return flight.future().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Set<StreamKey> fetch() {
+        Set<StreamKey> running = new HashSet<>();
+        for (Map<String, Object> stream : detectorClient.getActiveStreams()) {
+            Object userId = stream.get("user_id");
+            Object cctvId = stream.get("cctv_id");
+            if (userId == null || cctvId == null || !Boolean.TRUE.equals(stream.get("is_running"))) {
+                continue;
+            }
+            running.add(new StreamKey(Long.valueOf(String.valueOf(userId)), Long.valueOf(String.valueOf(cctvId))));
+        }
+        log.debug("FastAPI 실행 중 스트림 스냅샷 갱신: running={}", running.size());
+        return Set.copyOf(running);
+    }
+}
@@ -0,0 +1,216 @@
+package com.capstone.meerkatai.streamingvideo.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * FastAPI 이상행동 탐지 서버 HTTP 클라이언트
+ * <p>
+ * 모든 FastAPI 호출이 하나의 {@link HttpClient}를 공유하므로 keep-alive 연결이 풀에 보관되어
+ * 호출마다 TCP/TLS 연결을 새로 맺지 않습니다. 연결/응답 타임아웃을 두어 응답하지 않는
+ * 탐지 서버가 요청 스레드를 무기한 붙잡지 않게 하고, 호출별 소요 시간을
+ * detector.client.requests 지표(operation, outcome 태그)로 기록합니다.
+ * </p>
+ * <p>
+ * 스트리밍 시작/중지는 요청 스레드를 붙잡지 않도록 {@link WebClient}(Reactor Netty 연결 풀)로
+ * 호출하고 {@link Mono}를 반환합니다. 여러 중지 요청을 동시에 보낼 수 있습니다.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DetectorClient {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> MAP_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final WebClient.Builder webClientBuilder;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${detector.base-url}")
+    private String baseUrl;
+
+    @Value("${detector.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    // 응답 대기 상한 (초과 시 RestClientException)
+    @Value("${detector.read-timeout-ms:5000}")
+    private long readTimeoutMs;
+
+    // WebClient 연결 풀 최대 연결 수
+    @Value("${detector.max-connections:50}")
+    private int maxConnections;
+
+    private ExecutorService executor;
+    private RestTemplate restTemplate;
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "detector-http-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(executor)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+
+        restTemplate = restTemplateBuilder
+                .rootUri(baseUrl)
+                .requestFactory(() -> requestFactory)
+                .build();
+
+        connectionProvider = ConnectionProvider.builder("detector")
+                .maxConnections(maxConnections)
+                .build();
+        reactor.netty.http.client.HttpClient nettyClient = reactor.netty.http.client.HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+        webClient = webClientBuilder
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(nettyClient))
+                .build();
+        log.info("FastAPI 탐지 서버 클라이언트 초기화: baseUrl={}, connectTimeout={}ms, readTimeout={}ms",
+                baseUrl, connectTimeoutMs, readTimeoutMs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        connectionProvider.dispose();
+    }
+
+    /**
+     * 스트리밍 분석 시작을 요청합니다.
+     *
+     * @param userId  사용자 ID
+     * @param cctvId  CCTV ID
+     * @param rtspUrl RTSP 주소
+     * @return 2xx 응답 시 완료되는 Mono
+     */
+    public Mono<Void> startStreaming(Long userId, Long cctvId, String rtspUrl) {
+        // FastAPI가 기대하는 형식: snake_case
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("user_id", userId);
+        payload.put("cctv_id", cctvId);
+        payload.put("rtsp_url", rtspUrl);
+
+        return record("start", webClient.post()
+                .uri("/api/v1/streaming/start")
+                .bodyValue(payload)
+                .retrieve()
+                .toBodilessEntity()
+                .then());
+    }
+
+    /**
+     * 사용자/CCTV의 스트리밍 분석 중지를 요청합니다.
+     *
+     * @param userId 사용자 ID
+     * @param cctvId CCTV ID
+     * @return 2xx 응답 시 완료되는 Mono
+     */
+    public Mono<Void> stopStreaming(Long userId, Long cctvId) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("user_id", userId);
+        payload.put("cctv_id", cctvId);
+
+        return record("stop", webClient.put()
+                .uri("/api/v1/streaming/stop")
+                .bodyValue(payload)
+                .retrieve()
+                .toBodilessEntity()
+                .then());
+    }
+
+    /**
+     * CCTV의 스트리밍 분석 중지를 요청합니다.
+     *
+     * @param cctvId CCTV ID
+     * @return 2xx 응답 시 완료되는 Mono
+     */
+    public Mono<Void> stopStreaming(Long cctvId) {
+        return record("stop-cctv", webClient.put()
+                .uri("/api/v1/streaming/stop/{cctvId}", cctvId)
+                .retrieve()
+                .toBodilessEntity()
+                .then());
+    }
+
+    /**
+     * 탐지 서버에서 실행 중인 전체 스트림 목록을 조회합니다.
+     *
+     * @return 스트림 목록 (user_id, cctv_id, is_running 등), 응답이 비어 있으면 빈 목록
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> getActiveStreams() {
+        Map<String, Object> response = record("active-streams", () ->
+                restTemplate.exchange("/api/v1/active_streams", HttpMethod.GET, null, MAP_TYPE).getBody());
+        if (response == null || response.get("streams") == null) {
+            return List.of();
+        }
+        return (List<Map<String, Object>>) response.get("streams");
+    }
+
+    private <T> T record(String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(timer(operation, outcome));
+        }
+    }
+
+    // 구독 시점부터 완료/실패/취소(타임아웃 등)까지의 소요 시간을 기록
+    private <T> Mono<T> record(String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call
+                    .doOnSuccess(result -> sample.stop(timer(operation, "success")))
+                    .doOnError(e -> sample.stop(timer(operation, "error")))
+                    .doOnCancel(() -> sample.stop(timer(operation, "cancelled")));
+        });
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return meterRegistry.timer("detector.client.requests", "operation", operation, "outcome", outcome);
+    }
+}
@@ -0,0 +1,242 @@
+package com.capstone.meerkatai.streamingvideo.service;
+
+import com.capstone.meerkatai.streamingvideo.service.ActiveStreamsSnapshot.StreamKey;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 스트림 실행 상태 레지스트리
+ * <p>
+ * (사용자, CCTV)별 실행 여부를 메모리에 보관하므로 CCTV 목록 조회 등 상태 확인이
+ * 탐지 서버 호출이나 DB 조회 없이 끝납니다. 상태는 탐지 서버의 상태 콜백과
+ * 연결/중지 요청에서 갱신되며, 바뀐 상태만 모아 주기적으로 streaming_video 테이블에
+ * 배치 UPDATE로 반영합니다. (write-behind)
+ * </p>
+ * <p>
+ * 콜백이 유실되어도 상태가 어긋난 채 남지 않도록 주기적으로 탐지 서버의 실행 중 스트림
+ * 목록과 비교해 보정합니다. 조회 도중 콜백으로 바뀐 상태는 보정하지 않습니다.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StreamStatusRegistry {
+
+    private static final String LOAD_SQL =
+            "SELECT user_id, cctv_id, streaming_video_status FROM streaming_video " +
+            "WHERE user_id IS NOT NULL AND cctv_id IS NOT NULL";
+
+    private static final String START_SQL =
+            "UPDATE streaming_video SET streaming_video_status = true, start_time = ?, end_time = NULL " +
+            "WHERE user_id = ? AND cctv_id = ?";
+
+    private static final String STOP_SQL =
+            "UPDATE streaming_video SET streaming_video_status = false, end_time = ? " +
+            "WHERE user_id = ? AND cctv_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ActiveStreamsSnapshot activeStreamsSnapshot;
+
+    // 사용자 ID → (CCTV ID → 상태)
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<Long, State>> states = new ConcurrentHashMap<>();
+    // DB에 아직 반영되지 않은 마지막 상태
+    private final ConcurrentHashMap<StreamKey, State> dirty = new ConcurrentHashMap<>();
+    private TransactionTemplate transactionTemplate;
+
+    private record State(boolean running, LocalDateTime changedAt) {
+    }
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        LocalDateTime loadedAt = LocalDateTime.now();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            userStates(rs.getLong(1)).putIfAbsent(rs.getLong(2), new State(rs.getBoolean(3), loadedAt));
+        });
+        log.info("스트림 상태 레지스트리 로드 완료: users={}", states.size());
+    }
+
+    /**
+     * 스트림이 실행 중인지 확인합니다.
+     *
+     * @param userId 사용자 ID
+     * @param cctvId CCTV ID
+     * @return 실행 중 여부 (기록이 없으면 false)
+     */
+    public boolean isRunning(Long userId, Long cctvId) {
+        Map<Long, State> userStates = states.get(userId);
+        State state = userStates != null ? userStates.get(cctvId) : null;
+        return state != null && state.running();
+    }
+
+    /**
+     * 사용자의 실행 중인 CCTV ID 목록을 반환합니다.
+     *
+     * @param userId 사용자 ID
+     * @return 실행 중인 CCTV ID 목록
+     */
+    public List<Long> runningCctvIds(Long userId) {
+        Map<Long, State> userStates = states.get(userId);
+        if (userStates == null) {
+            return List.of();
+        }
+        List<Long> result = new ArrayList<>();
+        userStates.forEach((cctvId, state) -> {
+            if (state.running()) {
+                result.add(cctvId);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 스트림 상태를 갱신합니다. 상태가 바뀐 경우에만 DB 반영 대상에 추가됩니다.
+     *
+     * @param userId  사용자 ID
+     * @param cctvId  CCTV ID
+     * @param running 실행 중 여부
+     * @return 상태가 바뀌었는지 여부
+     */
+    public boolean update(Long userId, Long cctvId, boolean running) {
+        return update(userId, cctvId, running, null);
+    }
+
+    // unchangedSince가 있으면 그 이후에 바뀐 상태는 덮어쓰지 않음
+    private boolean update(Long userId, Long cctvId, boolean running, LocalDateTime unchangedSince) {
+        boolean[] changed = new boolean[1];
+        userStates(userId).compute(cctvId, (key, current) -> {
+            if (current != null && current.running() == running) {
+                return current;
+            }
+            if (current != null && unchangedSince != null && current.changedAt().isAfter(unchangedSince)) {
+                return current;
+            }
+            State next = new State(running, LocalDateTime.now());
+            dirty.put(new StreamKey(userId, cctvId), next);
+            changed[0] = true;
+            return next;
+        });
+        return changed[0];
+    }
+
+    /**
+     * 바뀐 상태를 streaming_video 테이블에 반영합니다.
+     * 실패하면 그사이 더 새로운 상태가 들어오지 않은 키만 다음 주기에 다시 반영합니다.
+     */
+    @Scheduled(fixedDelayString = "${detector.stream-status.flush-interval-ms:1000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<StreamKey> keys = new ArrayList<>();
+        List<State> drained = new ArrayList<>();
+        for (StreamKey key : new ArrayList<>(dirty.keySet())) {
+            State state = dirty.remove(key);
+            if (state != null) {
+                keys.add(key);
+                drained.add(state);
+            }
+        }
+
+        List<StreamKey> startKeys = new ArrayList<>();
+        List<Object[]> starts = new ArrayList<>();
+        List<StreamKey> stopKeys = new ArrayList<>();
+        List<Object[]> stops = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            StreamKey key = keys.get(i);
+            State state = drained.get(i);
+            Object[] args = {Timestamp.valueOf(state.changedAt()), key.userId(), key.cctvId()};
+            (state.running() ? startKeys : stopKeys).add(key);
+            (state.running() ? starts : stops).add(args);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!starts.isEmpty()) {
+                    warnUnmatched(startKeys, jdbcTemplate.batchUpdate(START_SQL, starts));
+                }
+                if (!stops.isEmpty()) {
+                    warnUnmatched(stopKeys, jdbcTemplate.batchUpdate(STOP_SQL, stops));
+                }
+            });
+            log.debug("스트림 상태 DB 반영 완료: started={}, stopped={}", starts.size(), stops.size());
+        } catch (RuntimeException e) {
+            log.warn("스트림 상태 DB 반영 실패, 다음 주기에 재시도: keys={}", keys.size(), e);
+            for (int i = 0; i < keys.size(); i++) {
+                dirty.putIfAbsent(keys.get(i), drained.get(i));
+            }
+        }
+    }
+
+    // streaming_video 행이 없는 (사용자, CCTV)는 DB에 남지 않으므로 기록으로 남김
+    private void warnUnmatched(List<StreamKey> keys, int[] counts) {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                log.warn("스트림 상태 DB 반영 대상 행 없음 (streaming_video 미등록): userId={}, cctvId={}",
+                        keys.get(i).userId(), keys.get(i).cctvId());
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * 탐지 서버의 실행 중 스트림 목록과 비교해 어긋난 상태를 보정합니다. (콜백 유실 대비)
+     */
+    @Scheduled(fixedDelayString = "${detector.stream-status.reconcile-interval-ms:30000}")
+    public void reconcile() {
+        LocalDateTime pollStartedAt = LocalDateTime.now();
+        Set<StreamKey> running;
+        try {
+            running = activeStreamsSnapshot.runningFresh();
+        } catch (Exception e) {
+            log.warn("스트림 상태 보정 실패 (탐지 서버 조회 실패): {}", e.getMessage());
+            return;
+        }
+
+        int corrected = 0;
+        for (Map.Entry<Long, ConcurrentHashMap<Long, State>> user : states.entrySet()) {
+            for (Map.Entry<Long, State> stream : user.getValue().entrySet()) {
+                boolean actual = running.contains(new StreamKey(user.getKey(), stream.getKey()));
+                if (stream.getValue().running() != actual
+                        && update(user.getKey(), stream.getKey(), actual, pollStartedAt)) {
+                    corrected++;
+                }
+            }
+        }
+        for (StreamKey key : running) {
+            if (!isRunning(key.userId(), key.cctvId()) && update(key.userId(), key.cctvId(), true, pollStartedAt)) {
+                corrected++;
+            }
+        }
+
+        if (corrected > 0) {
+            log.info("스트림 상태 보정: corrected={}", corrected);
+        }
+    }
+
+    private ConcurrentHashMap<Long, State> userStates(Long userId) {
+        return states.computeIfAbsent(userId, key -> new ConcurrentHashMap<>());
+    }
+}
@@ -7,20 +7,19 @@ import com.capstone.meerkatai.streamingvideo.repository.StreamingVideoRepository
 import com.capstone.meerkatai.user.entity.User;
 import com.capstone.meerkatai.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.net.HttpURLConnection;
 import java.net.URL;
-import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @RequiredArgsConstructor
@@ -29,7 +28,13 @@ public class StreamingVideoService {
   private final StreamingVideoRepository streamingVideoRepository;
   private final UserRepository userRepository;
   private final CctvRepository cctvRepository;
-  private final RestTemplate restTemplate = new RestTemplate();
+  private final DetectorClient detectorClient;
+  private final ActiveStreamsSnapshot activeStreamsSnapshot;
+  private final StreamStatusRegistry streamStatusRegistry;
+
+  // 연결/중지 요청 전체 제한 시간
+  @Value("${detector.connect-deadline-ms:10000}")
+  private long connectDeadlineMs;
 
   //사용 안함
 //  public boolean connectAndRegister(Long userId, Long targetCctvId, String rtspUrl) {
@@ -110,57 +115,76 @@ public class StreamingVideoService {
 //    }
 //  }
 
-  public void sendToFastAPI(Long userId, Long cctvId, String rtspUrl) {
-    String fastApiUrl = "https://sharp-burro-pleasantly.ngrok-free.app/api/v1/streaming/start";  // ✅ 올바른 FastAPI URL
-
-    // ✅ FastAPI가 기대하는 형식: snake_case
-    Map<String, Object> payload = new HashMap<>();
-    payload.put("user_id", userId);
-    payload.put("cctv_id", cctvId);
-    payload.put("rtsp_url", rtspUrl);
-
-    HttpHeaders headers = new HttpHeaders();
-    headers.setContentType(MediaType.APPLICATION_JSON);
-
-    HttpEntity<Map<String, Object>> request = new HttpEntity<>(payload, headers);
-
-    try {
-      restTemplate.postForEntity(fastApiUrl, request, Void.class);
-    } catch (Exception e) {
-      System.err.println("⚠️ FastAPI 전송 실패: " + e.getMessage());
-    }
+  /**
+   * ✅ CCTV 스트리밍 연결 (비동기)
+   * - FastAPI 시작 요청과 다른 활성 CCTV 중지 요청을 동시에 보내고, 응답은 연결 제한 시간까지만 기다림
+   * - 다른 CCTV 상태 변경과 연결 성공 상태는 탐지 서버 응답이 모두 도착한 뒤 한 번에 반영하며,
+   *   제한 시간이 지나 늦게 성공한 시작 요청도 그대로 반영됨
+   * - 연결 이후 실제 실행 여부는 탐지 서버 상태 콜백/보정으로 갱신됨
+   *
+   * @return 시작 요청 성공 여부 (제한 시간 안에 결과가 없으면 false)
+   */
+  public Mono<Boolean> connect(Long userId, Long targetCctvId, String rtspUrl) {
+    List<Long> otherCctvIds = streamStatusRegistry.runningCctvIds(userId).stream()
+            .filter(cctvId -> !cctvId.equals(targetCctvId))
+            .toList();
+
+    Mono<Boolean> start = detectorClient.startStreaming(userId, targetCctvId, rtspUrl)
+            .thenReturn(true)
+            .onErrorResume(e -> {
+              System.err.println("⚠️ FastAPI 전송 실패: " + e.getMessage());
+              return Mono.just(false);
+            });
+
+    // 다른 CCTV 중지 요청은 동시에 전송 (실패해도 연결은 계속 진행)
+    Mono<List<Long>> stops = Flux.fromIterable(otherCctvIds)
+            .flatMap(cctvId -> detectorClient.stopStreaming(cctvId)
+                    .onErrorResume(e -> {
+                      System.err.println("⚠️ FastAPI 중지 요청 실패 (cctvId=" + cctvId + "): " + e.getMessage());
+                      return Mono.empty();
+                    })
+                    .thenReturn(cctvId))
+            .collectList();
+
+    // 탐지 서버 호출과 결과 반영은 응답 제한 시간과 관계없이 끝까지 진행
+    CompletableFuture<Boolean> outcome = Mono.zip(start, stops)
+            .flatMap(result -> Mono.fromCallable(() -> {
+                      applyConnectResult(userId, targetCctvId, rtspUrl, result.getT1(), otherCctvIds);
+                      return result.getT1();
+                    })
+                    .subscribeOn(Schedulers.boundedElastic())) // JPA 저장은 블로킹이므로 별도 스케줄러에서 실행
+            .doOnError(e -> System.err.println("❌ 연결 처리 중 예외 발생: " + e.getMessage()))
+            // 요청 이전의 스트림 스냅샷은 더 이상 사용하지 않음
+            .doFinally(signal -> activeStreamsSnapshot.invalidate())
+            .toFuture();
+
+    // 응답만 제한 시간까지 기다림 (제한 시간이 지나도 위 처리는 취소하지 않음)
+    return Mono.fromFuture(outcome, true)
+            .timeout(Duration.ofMillis(connectDeadlineMs))
+            .onErrorResume(e -> {
+              if (e instanceof TimeoutException) {
+                System.err.println("⚠️ 연결 응답 제한 시간 초과 (결과는 도착 시 반영): cctvId=" + targetCctvId);
+              }
+              return Mono.just(false);
+            });
   }
 
-  public boolean disconnectAndNotify(Long userId, Long cctvId) {
-    String fastApiUrl = "https://sharp-burro-pleasantly.ngrok-free.app/api/v1/streaming/stop";
-
-    HttpHeaders headers = new HttpHeaders();
-    headers.setContentType(MediaType.APPLICATION_JSON);
-
-    Map<String, Object> body = new HashMap<>();
-    body.put("user_id", userId);
-    body.put("cctv_id", cctvId);
-
-    HttpEntity<Map<String, Object>> requestEntity = new HttpEntity<>(body, headers);
-
-    try {
-      // ✅ FastAPI에 스트리밍 중지 요청 먼저
-      restTemplate.exchange(fastApiUrl, HttpMethod.PUT, requestEntity, Void.class);
-
-      // ✅ 성공한 경우에만 DB 상태 변경
-      streamingVideoRepository.findByUserUserIdAndCctvCctvId(userId, cctvId)
-              .ifPresent(stream -> {
-                stream.setStreamingVideoStatus(false);
-                stream.setEndTime(LocalDateTime.now());
-                streamingVideoRepository.save(stream);
-              });
-
-      return true;
-
-    } catch (Exception e) {
-      System.err.println("❌ FastAPI 스트림 중지 요청 실패: " + e.getMessage());
-      return false;
-    }
+  /**
+   * ✅ CCTV 스트리밍 중지 (비동기)
+   * - FastAPI 중지 요청이 제한 시간 안에 성공한 경우에만 상태 변경 (DB는 레지스트리가 모아서 반영)
+   *
+   * @return 중지 요청 성공 여부
+   */
+  public Mono<Boolean> disconnect(Long userId, Long cctvId) {
+    return detectorClient.stopStreaming(userId, cctvId)
+            .timeout(Duration.ofMillis(connectDeadlineMs))
+            .then(Mono.fromCallable(() -> streamStatusRegistry.update(userId, cctvId, false)))
+            .thenReturn(true)
+            .onErrorResume(e -> {
+              System.err.println("❌ FastAPI 스트림 중지 요청 실패: " + e.getMessage());
+              return Mono.just(false);
+            })
+            .doFinally(signal -> activeStreamsSnapshot.invalidate());
   }
 
   public StreamingVideo createStreamingVideo(Long userId, Long cctvId) {
@@ -190,115 +214,38 @@ public class StreamingVideoService {
     return streamingVideoRepository.save(streamingVideo);
   }
 
-
-  public void updateStreamingStatusFromFastAPI(Long userId) {
-    String statusUrl = "https://sharp-burro-pleasantly.ngrok-free.app/api/v1/active_streams";
-
-    try {
-      // FastAPI에서 전체 실행 중인 스트림 목록 받아오기
-      Map<String, Object> response = restTemplate.getForObject(statusUrl, Map.class);
-      List<Map<String, Object>> activeStreams = (List<Map<String, Object>>) response.get("streams");
-
-      // 해당 사용자의 모든 스트리밍 비디오 조회
-      List<StreamingVideo> userStreams = streamingVideoRepository.findByUserUserId(userId);
-
-      for (StreamingVideo stream : userStreams) {
-        Long cctvId = stream.getCctv().getCctvId();
-
-        // FastAPI에서 해당 user + cctv의 스트림이 존재하고, is_running == true 인지 확인
-        boolean isActive = activeStreams.stream().anyMatch(s ->
-                Long.valueOf(String.valueOf(s.get("user_id"))).equals(userId) &&
-                        Long.valueOf(String.valueOf(s.get("cctv_id"))).equals(cctvId) &&
-                        Boolean.TRUE.equals(s.get("is_running"))
-        );
-
-        if (!Boolean.valueOf(isActive).equals(stream.getStreamingVideoStatus())) {
-          stream.setStreamingVideoStatus(isActive);
-          if (!isActive) {
-            stream.setEndTime(LocalDateTime.now());
-          } else {
-            stream.setEndTime(null);
-          }
-          streamingVideoRepository.save(stream);
-        }
-      }
-
-      System.out.println("✅ 사용자(userId=" + userId + ")의 스트리밍 상태가 is_running 기준으로 동기화되었습니다.");
-
-    } catch (Exception e) {
-      System.err.println("❌ FastAPI 스트리밍 상태 동기화 실패: " + e.getMessage());
+  // 중지 요청한 CCTV와 연결한 CCTV의 상태를 한 번에 반영
+  // 실행 상태(streaming_video_status, start_time)는 레지스트리를 통해서만 DB에 기록
+  private void applyConnectResult(Long userId, Long targetCctvId, String rtspUrl,
+                                  boolean connected, List<Long> stoppedCctvIds) {
+    stoppedCctvIds.forEach(cctvId -> streamStatusRegistry.update(userId, cctvId, false));
+    if (!connected) {
+      return;
     }
-  }
-
-    public boolean checkStreamingStatusFromFastAPIAndHandle(Long userId, Long targetCctvId, String rtspUrl) {
-    String statusUrl = "https://sharp-burro-pleasantly.ngrok-free.app/api/v1/active_streams";
-
-    try {
-      // FastAPI에서 전체 실행 중인 스트림 목록 받아오기
-      Map<String, Object> response = restTemplate.getForObject(statusUrl, Map.class);
-      List<Map<String, Object>> activeStreams = (List<Map<String, Object>>) response.get("streams");
-
-      // ✅ userId, cctvId가 일치하고 is_running == true 인 스트림이 있는지 확인
-      boolean isStreaming = activeStreams.stream().anyMatch(stream ->
-              Long.valueOf(String.valueOf(stream.get("user_id"))).equals(userId) &&
-                      Long.valueOf(String.valueOf(stream.get("cctv_id"))).equals(targetCctvId) &&
-                      Boolean.TRUE.equals(stream.get("is_running"))
-      );
 
-      if (isStreaming) {
-        // 1. 해당 사용자의 모든 활성 스트리밍 조회
-        List<StreamingVideo> activeStreamList = streamingVideoRepository.findByUserUserIdAndStreamingVideoStatusTrue(userId);
-
-        // 2. 다른 CCTV에 대한 스트리밍을 모두 비활성화 및 FastAPI에 중지 요청
-        for (StreamingVideo stream : activeStreamList) {
-          Long cctvId = stream.getCctv().getCctvId();
-          if (!cctvId.equals(targetCctvId)) {
-            stream.setStreamingVideoStatus(false);
-            stream.setEndTime(LocalDateTime.now());
-            streamingVideoRepository.save(stream);
-
-            // FastAPI에 중지 요청
-            String fastApiUrl = String.format("https://sharp-burro-pleasantly.ngrok-free.app/api/v1/streaming/stop/%d", cctvId);
-            try {
-              restTemplate.put(fastApiUrl, null);
-            } catch (Exception e) {
-              System.err.println("⚠️ FastAPI 중지 요청 실패 (cctvId=" + cctvId + "): " + e.getMessage());
-            }
-          }
-        }
-
-        // 3. 연결 시도할 CCTV 스트리밍Video 상태 확인 또는 생성 후 업데이트
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        Cctv cctv = cctvRepository.findById(targetCctvId)
-                .orElseThrow(() -> new RuntimeException("CCTV not found"));
-
-        Optional<StreamingVideo> existingStreamOpt = streamingVideoRepository.findByUserUserIdAndCctvCctvId(userId, targetCctvId);
-
-        StreamingVideo entity;
-        if (existingStreamOpt.isPresent()) {
-          entity = existingStreamOpt.get();
-          entity.setStreamingVideoStatus(true);
-          entity.setStreamingUrl(rtspUrl);
-          entity.setStartTime(LocalDateTime.now());
-        } else {
-          entity = StreamingVideo.builder()
-                  .user(user)
-                  .cctv(cctv)
-                  .streamingVideoStatus(true)
-                  .streamingUrl(rtspUrl)
-                  .startTime(LocalDateTime.now())
-                  .build();
-        }
+    // 연결한 CCTV 스트리밍Video 상태 확인 또는 생성 후 업데이트
+    Optional<StreamingVideo> existingStreamOpt = streamingVideoRepository.findByUserUserIdAndCctvCctvId(userId, targetCctvId);
 
+    if (existingStreamOpt.isPresent()) {
+      StreamingVideo entity = existingStreamOpt.get();
+      if (!rtspUrl.equals(entity.getStreamingUrl())) {
+        entity.setStreamingUrl(rtspUrl);
         streamingVideoRepository.save(entity);
       }
-
-      return isStreaming;
-
-    } catch (Exception e) {
-      System.err.println("❌ FastAPI 스트리밍 상태 확인 실패: " + e.getMessage());
-      return false;
+    } else {
+      // 레지스트리의 UPDATE가 반영될 행만 만들어 둠 (상태는 아래 레지스트리 갱신으로 기록)
+      User user = userRepository.findById(userId)
+              .orElseThrow(() -> new RuntimeException("User not found"));
+      Cctv cctv = cctvRepository.findById(targetCctvId)
+              .orElseThrow(() -> new RuntimeException("CCTV not found"));
+      streamingVideoRepository.save(StreamingVideo.builder()
+              .user(user)
+              .cctv(cctv)
+              .streamingVideoStatus(false)
+              .streamingUrl(rtspUrl)
+              .build());
     }
+
+    streamStatusRegistry.update(userId, targetCctvId, true);
   }
 }
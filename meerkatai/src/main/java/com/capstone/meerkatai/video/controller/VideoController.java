@@ -2,18 +2,21 @@ package com.capstone.meerkatai.video.controller;
 
 import com.capstone.meerkatai.user.repository.UserRepository;
 import com.capstone.meerkatai.video.dto.*;
+import com.capstone.meerkatai.video.service.VideoPrefetcher;
 import com.capstone.meerkatai.video.service.VideoService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.data.util.Pair;
 import org.springframework.http.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.*;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -22,7 +25,10 @@ import java.util.zip.ZipOutputStream;
 @RequiredArgsConstructor
 public class VideoController {
 
+    private static final int ZIP_COPY_BUFFER_SIZE = 64 * 1024;
+
     private final VideoService videoService;
+    private final VideoPrefetcher videoPrefetcher;
     private final UserRepository userRepository;
 
     // ✅ 공통 메서드: 현재 사용자 ID 조회
@@ -42,7 +48,8 @@ public class VideoController {
     //        "start_date":"2024-01-01",
     //        "end_date":"2024-12-31",
     //        "anomaly_behavior_type":"Type1",
-    //        "page": 1
+    //        "page": 1,
+    //        "cursor": "MjAyNS0wNS0wOFQxOToxNzowNXwyMDI"   // 선택: 이전 응답의 next_cursor
     //    }
     @PostMapping("/list")
     public ResponseEntity<GetVideoListResponse> getVideosByUser(
@@ -63,7 +70,7 @@ public class VideoController {
         if (hasFilters) {
             response = videoService.getVideosByFilters(userId, request);  // 필터 기반 조회 -> 필터 값 있는 경우
         } else {
-            response = videoService.getVideosByUser(userId, request.getPage());  // 전체 조회 -> 홈페이지 이동 OR 필터값 없이 페이지 이동
+            response = videoService.getVideosByUser(userId, page, request.getCursor());  // 전체 조회 -> 홈페이지 이동 OR 필터값 없이 페이지 이동
         }
 
         return ResponseEntity.ok(response);
@@ -82,24 +89,15 @@ public class VideoController {
         try {
             Long userId = getCurrentUserId();
 
-            List<Pair<String, InputStream>> files = videoService.getVideoStreams(userId, request.getVideoIds());
+            List<Pair<String, InputStreamSource>> files = videoService.getVideoSources(userId, request.getVideoIds());
 
             if (files.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("status", "error", "message", "비디오를 찾을 수 없거나 다운로드할 수 없습니다."));
             }
 
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ZipOutputStream zos = new ZipOutputStream(baos);
-
-            for (Pair<String, InputStream> pair : files) {
-                zos.putNextEntry(new ZipEntry(pair.getFirst()));
-                StreamUtils.copy(pair.getSecond(), zos);
-                pair.getSecond().close();
-                zos.closeEntry();
-            }
-
-            zos.close();
+            // ZIP을 메모리에 만들지 않고 응답 스트림으로 바로 전송
+            StreamingResponseBody body = outputStream -> writeZip(files, outputStream);
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
@@ -107,7 +105,7 @@ public class VideoController {
 
             return ResponseEntity.ok()
                 .headers(headers)
-                .body(baos.toByteArray());
+                .body(body);
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -115,6 +113,33 @@ public class VideoController {
         }
     }
 
+    /**
+     * 영상 스트림들을 ZIP으로 묶어 출력 스트림에 순서대로 기록합니다.
+     * <p>
+     * 현재 항목을 쓰는 동안 VideoPrefetcher가 다음 영상들을 병렬로 열고 버퍼링하므로
+     * 전체 소요 시간이 S3 왕복 시간의 합이 아니라 가장 느린 영상 수준으로 줄어듭니다.
+     * MP4는 이미 압축된 포맷이므로 압축 없이(NO_COMPRESSION) 저장하며,
+     * 4GB 이상이거나 65,535개를 넘는 항목은 ZipOutputStream이 ZIP64 형식으로 기록합니다.
+     * </p>
+     */
+    private void writeZip(List<Pair<String, InputStreamSource>> files, OutputStream outputStream) throws IOException {
+        byte[] buffer = new byte[ZIP_COPY_BUFFER_SIZE];
+
+        try (VideoPrefetcher.Session session = videoPrefetcher.open(files);
+             ZipOutputStream zos = new ZipOutputStream(outputStream)) {
+            zos.setLevel(Deflater.NO_COMPRESSION);
+
+            while (session.hasNext()) {
+                VideoPrefetcher.Clip clip = session.take();
+                if (clip == null) continue;  // 열기에 실패한 영상은 건너뜀
+
+                zos.putNextEntry(new ZipEntry(clip.getName()));
+                clip.transferTo(zos, buffer);
+                zos.closeEntry();
+            }
+        }
+    }
+
     // 🗑️ 영상 삭제
     // DELETE: http://localhost:8080/api/v1/video/download
     //    {
@@ -41,9 +41,10 @@ public class GetVideoListResponse {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class Pagination {
-        private int total;
+        private Integer total;        // 전체 개수 (커서 요청이면 null)
         private int page;
-        private int pages;
+        private Integer pages;        // 전체 페이지 수 (커서 요청이면 null)
         private int limit;
+        private String next_cursor;   // 다음 페이지 커서 (마지막 페이지면 null)
     }
 }
\ No newline at end of file
@@ -12,4 +12,5 @@ public class VideoListRequest {
   private String end_date;
   private String anomaly_behavior_type;
   private Integer page;
+  private String cursor;   // 무한 스크롤용 키셋 커서 (이전 응답의 next_cursor)
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.capstone.meerkatai.video.dto;
+
+/**
+ * 영상 분석 대상 (ID와 S3 경로만 조회)
+ *
+ * @param videoId 영상 ID
+ * @param filePath 영상 S3 URL
+ */
+public record VideoProbeTarget(Long videoId, String filePath) {
+}
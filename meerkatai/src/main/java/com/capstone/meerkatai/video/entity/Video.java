@@ -33,15 +33,18 @@ public class Video {
     @Column(nullable = false)
     private Boolean videoStatus;
 
-    @ManyToOne
+    // 영상 길이/재생 가능 여부 분석 중 여부 (분석이 끝나면 false, 이전 데이터는 null)
+    private Boolean processing;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "streaming_video_id", nullable = false)
     private StreamingVideo streamingVideo;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @OneToOne(cascade = CascadeType.ALL)
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JoinColumn(name = "anomaly_id", nullable = true, unique = true)
     private AnomalyBehavior anomalyBehavior;
 }
\ No newline at end of file
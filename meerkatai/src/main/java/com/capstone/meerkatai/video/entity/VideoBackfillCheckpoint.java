@@ -0,0 +1,38 @@
+package com.capstone.meerkatai.video.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 영상 분석 백필 작업 진행 위치
+ * <p>
+ * 마지막으로 처리한 video_id를 기록해 서버가 재시작되어도 이어서 처리합니다.
+ * </p>
+ */
+@Entity
+@Getter @Setter @NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "video_backfill_checkpoint")
+public class VideoBackfillCheckpoint {
+
+    @Id
+    @Column(length = 50)
+    private String jobName;
+
+    @Column(nullable = false)
+    private Long lastVideoId;
+
+    @Column(nullable = false)
+    private Boolean completed;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,7 @@
+package com.capstone.meerkatai.video.repository;
+
+import com.capstone.meerkatai.video.entity.VideoBackfillCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface VideoBackfillCheckpointRepository extends JpaRepository<VideoBackfillCheckpoint, String> {
+}
@@ -0,0 +1,24 @@
+package com.capstone.meerkatai.video.repository;
+
+import com.capstone.meerkatai.video.entity.Video;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * 영상 리스트 조회용 리포지토리 확장
+ */
+public interface VideoListQuery {
+
+    /**
+     * 조건에 맞는 영상을 정렬해 OFFSET/LIMIT 구간만 조회합니다. (count 쿼리 없음)
+     *
+     * @param spec   조회 조건
+     * @param sort   정렬 순서
+     * @param offset 건너뛸 행 수
+     * @param limit  최대 조회 행 수
+     * @return 영상 목록
+     */
+    List<Video> findPage(Specification<Video> spec, Sort sort, int offset, int limit);
+}
@@ -0,0 +1,46 @@
+package com.capstone.meerkatai.video.repository;
+
+import com.capstone.meerkatai.video.entity.Video;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+/**
+ * {@link VideoListQuery} 구현
+ * <p>
+ * 전체 건수는 호출 측에서 한 번만 세므로, 페이지 조회에서는 Spring Data의 page()처럼
+ * count 쿼리를 다시 실행하지 않고 본문 조회 한 번으로 끝냅니다.
+ * </p>
+ */
+@RequiredArgsConstructor
+public class VideoListQueryImpl implements VideoListQuery {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Video> findPage(Specification<Video> spec, Sort sort, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Video> query = cb.createQuery(Video.class);
+        Root<Video> root = query.from(Video.class);
+
+        // 조건을 먼저 적용해야 정렬이 fetch join을 재사용함
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -1,18 +1,76 @@
 package com.capstone.meerkatai.video.repository;
 
+import com.capstone.meerkatai.video.dto.VideoProbeTarget;
 import com.capstone.meerkatai.video.entity.Video;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-public interface VideoRepository extends JpaRepository<Video, Long> {
+public interface VideoRepository extends JpaRepository<Video, Long>, JpaSpecificationExecutor<Video>,
+        VideoListQuery {
     List<Video> findByUserUserId(Long userId);
     List<Video> findByStreamingVideoStreamingVideoId(Long streamingVideoId);
     List<Video> findByUser_UserIdAndVideoIdIn(Long userId, List<Long> videoIds);
-    Optional<Video> findByUserUserIdAndVideoId(Long userId, Long videoId);
 
     List<Video> findByUserUserIdOrderByAnomalyBehavior_AnomalyTimeDesc(Long userId);
 
+    // 분석 중 상태로 남아 있는 영상 ID (오래된 순)
+    @Query("SELECT v.videoId FROM Video v WHERE v.processing = true ORDER BY v.videoId")
+    List<Long> findProcessingVideoIds(Pageable pageable);
+
+    // 백필 대상: 길이 또는 재생 가능 여부가 비어 있고 분석 중이 아닌 영상 (video_id 키셋)
+    @Query("SELECT new com.capstone.meerkatai.video.dto.VideoProbeTarget(v.videoId, v.filePath) FROM Video v " +
+            "WHERE v.videoId > :afterId AND (v.duration = 0 OR v.videoStatus = false) " +
+            "AND (v.processing IS NULL OR v.processing = false) " +
+            "ORDER BY v.videoId")
+    List<VideoProbeTarget> findBackfillTargets(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 영상 분석 결과 반영 및 분석 중 상태 해제
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Video v SET v.duration = :duration, v.videoStatus = :playable, v.processing = false " +
+            "WHERE v.videoId = :videoId")
+    int completeProbe(@Param("videoId") Long videoId,
+                      @Param("duration") Long duration,
+                      @Param("playable") boolean playable);
+
+    // 영상 상세 조회 (응답에 필요한 이상행동/스트리밍/CCTV를 한 번의 SQL로 조회)
+    @Query("SELECT v FROM Video v JOIN FETCH v.anomalyBehavior a " +
+            "JOIN FETCH v.streamingVideo s JOIN FETCH s.cctv " +
+            "WHERE v.user.userId = :userId AND v.videoId = :videoId")
+    Optional<Video> findDetailByUserIdAndVideoId(@Param("userId") Long userId, @Param("videoId") Long videoId);
+
+    // 영상 리스트 첫 페이지 또는 page 번호 기반 조회 (Pageable의 offset/limit을 DB에서 적용)
+    // 응답에 필요한 연관 엔티티를 fetch join으로 함께 조회해 페이지당 SQL 한 번으로 처리
+    // 사용자 조건을 a.user에 걸어 anomaly_behavior(user_id, anomaly_time) 인덱스로 정렬/범위 탐색
+    @Query("SELECT v FROM Video v JOIN FETCH v.anomalyBehavior a " +
+            "JOIN FETCH v.streamingVideo s JOIN FETCH s.cctv " +
+            "WHERE a.user.userId = :userId AND v.user.userId = :userId " +
+            "ORDER BY a.anomalyTime DESC, v.videoId DESC")
+    List<Video> findPageByUser(@Param("userId") Long userId, Pageable pageable);
+
+    // 커서 이후 영상 조회 (anomaly_time, video_id 키셋)
+    @Query("SELECT v FROM Video v JOIN FETCH v.anomalyBehavior a " +
+            "JOIN FETCH v.streamingVideo s JOIN FETCH s.cctv " +
+            "WHERE a.user.userId = :userId AND v.user.userId = :userId " +
+            "AND (a.anomalyTime < :cursorTime OR (a.anomalyTime = :cursorTime AND v.videoId < :cursorId)) " +
+            "ORDER BY a.anomalyTime DESC, v.videoId DESC")
+    List<Video> findPageByUserAfter(@Param("userId") Long userId,
+                                    @Param("cursorTime") LocalDateTime cursorTime,
+                                    @Param("cursorId") Long cursorId,
+                                    Pageable pageable);
+
+    @Query("SELECT COUNT(v) FROM Video v JOIN v.anomalyBehavior a " +
+            "WHERE a.user.userId = :userId AND v.user.userId = :userId")
+    long countByUser(@Param("userId") Long userId);
+
     void deleteByUserUserId(Long userId);
-}
\ No newline at end of file
+}
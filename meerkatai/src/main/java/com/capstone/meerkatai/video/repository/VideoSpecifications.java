@@ -0,0 +1,120 @@
+package com.capstone.meerkatai.video.repository;
+
+import com.capstone.meerkatai.anomalybehavior.entity.AnomalyBehavior;
+import com.capstone.meerkatai.video.entity.Video;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * 영상 리스트 필터 조건을 SQL WHERE 절로 변환하는 Specification 모음입니다.
+ * <p>
+ * 사용자 조건은 anomaly_behavior.user_id에 걸리므로 날짜/유형 조건과 정렬이
+ * anomaly_behavior 테이블의 (user_id, anomaly_time) 또는 (user_id, anomaly_type_code, anomaly_time)
+ * 인덱스를 사용하며,
+ * video.user_id 조건은 조인 후 소유자 확인용으로만 쓰입니다. 값이 없는 필터는 조건에서 제외됩니다.
+ * </p>
+ */
+public final class VideoSpecifications {
+
+    /**
+     * 영상 리스트 정렬 순서 (최신 이상행동 시간 → 영상 ID 역순)
+     */
+    public static final Sort LATEST_FIRST = Sort.by(
+            Sort.Order.desc("anomalyBehavior.anomalyTime"),
+            Sort.Order.desc("videoId")
+    );
+
+    private VideoSpecifications() {
+    }
+
+    /**
+     * 사용자 소유이면서 이상행동 정보가 있는 영상 (이상행동의 사용자 조건으로 인덱스 탐색)
+     */
+    public static Specification<Video> ownedBy(Long userId) {
+        return (root, query, cb) -> cb.and(
+                cb.equal(anomaly(root).get("user").get("userId"), userId),
+                cb.equal(root.get("user").get("userId"), userId)
+        );
+    }
+
+    /**
+     * 이상행동 발생일이 [start, end] 구간에 포함되는 영상 (양 끝 날짜 포함)
+     */
+    public static Specification<Video> anomalyDateBetween(LocalDate start, LocalDate end) {
+        if (start == null || end == null) {
+            return null;
+        }
+        LocalDateTime from = start.atStartOfDay();
+        LocalDateTime to = end.plusDays(1).atStartOfDay();
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(anomaly(root).get("anomalyTime"), from),
+                cb.lessThan(anomaly(root).get("anomalyTime"), to)
+        );
+    }
+
+    /**
+     * 이상행동 유형 코드가 일치하는 영상
+     */
+    public static Specification<Video> anomalyTypeIs(Integer typeCode) {
+        if (typeCode == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(anomaly(root).get("anomalyTypeCode"), typeCode);
+    }
+
+    /**
+     * 키셋 커서 이후의 영상 (anomaly_time, video_id 역순 기준)
+     */
+    public static Specification<Video> before(LocalDateTime cursorTime, Long cursorId) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(anomaly(root).get("anomalyTime"), cursorTime),
+                cb.and(
+                        cb.equal(anomaly(root).get("anomalyTime"), cursorTime),
+                        cb.lessThan(root.get("videoId"), cursorId)
+                )
+        );
+    }
+
+    /**
+     * 영상 리스트 응답에 필요한 이상행동, 스트리밍 영상, CCTV를 fetch join으로 함께 조회합니다.
+     * <p>
+     * 페이지 조회가 SQL 한 번으로 끝나도록 하며, count 쿼리에서는 fetch join을 쓸 수 없으므로
+     * 적용하지 않습니다. 다른 조건이 이 조인을 재사용하도록 가장 먼저 적용해야 합니다.
+     * </p>
+     */
+    public static Specification<Video> fetchForList() {
+        return (root, query, cb) -> {
+            Class<?> resultType = query.getResultType();
+            if (resultType != Long.class && resultType != long.class) {
+                root.fetch("anomalyBehavior", JoinType.LEFT);
+                root.fetch("streamingVideo", JoinType.LEFT).fetch("cctv", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
+    /**
+     * 이미 만들어진 anomalyBehavior 조인(또는 fetch join)을 재사용합니다.
+     * <p>
+     * 정렬(LATEST_FIRST) 처리 시 Spring Data가 같은 LEFT 조인을 재사용하므로
+     * 조건마다 조인이 중복 생성되지 않습니다.
+     * </p>
+     */
+    @SuppressWarnings("unchecked")
+    private static Join<Video, AnomalyBehavior> anomaly(Root<Video> root) {
+        return Stream.concat(
+                        root.getFetches().stream().filter(Join.class::isInstance).map(Join.class::cast),
+                        root.getJoins().stream())
+                .filter(join -> join.getAttribute().getName().equals("anomalyBehavior"))
+                .map(join -> (Join<Video, AnomalyBehavior>) join)
+                .findFirst()
+                .orElseGet(() -> root.join("anomalyBehavior", JoinType.LEFT));
+    }
+}
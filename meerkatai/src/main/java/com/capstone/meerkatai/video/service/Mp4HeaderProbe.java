@@ -0,0 +1,270 @@
+package com.capstone.meerkatai.video.service;
+
+import com.capstone.meerkatai.global.service.S3Service;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MP4(ISO-BMFF) 헤더 분석기
+ * <p>
+ * S3 Range GET으로 파일 앞부분을 읽어 최상위 박스를 따라가며 moov 박스를 찾고,
+ * moov만 받아 재생 시간, 해상도, 코덱, 비트레이트를 계산합니다.
+ * moov가 mdat 뒤(파일 끝쪽)에 있으면 mdat 크기만큼 건너뛰어 다음 박스 헤더만 읽으므로
+ * 영상 본문은 내려받지 않습니다. 분석할 수 없는 파일은 null을 반환하며,
+ * 호출 측에서 FFmpeg 분석으로 대체합니다.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class Mp4HeaderProbe {
+
+    // 처음 한 번에 읽을 앞부분 크기 (faststart 파일은 대부분 여기에 moov가 포함됨)
+    private static final int HEAD_READ_BYTES = 64 * 1024;
+
+    // 박스 헤더 최대 크기 (size 4 + type 4 + largesize 8)
+    private static final int BOX_HEADER_BYTES = 16;
+
+    // 최상위 박스 탐색 상한 (비정상 파일에서 무한히 건너뛰지 않도록)
+    private static final int MAX_TOP_LEVEL_BOXES = 32;
+
+    private final S3Service s3Service;
+
+    // 이 크기를 넘는 moov는 분석하지 않고 FFmpeg로 넘김
+    @Value("${video.probe.max-moov-bytes:8388608}")
+    private int maxMoovBytes;
+
+    /**
+     * MP4 헤더 분석 결과
+     *
+     * @param durationSeconds 재생 시간 (초)
+     * @param width 영상 트랙 가로 해상도 (없으면 0)
+     * @param height 영상 트랙 세로 해상도 (없으면 0)
+     * @param codec 영상 트랙 코덱 (예: avc1, hvc1), 영상 트랙이 없으면 null
+     * @param bitrate 평균 비트레이트 (bps, 파일 크기를 모르면 0)
+     */
+    public record Mp4Info(double durationSeconds, int width, int height, String codec, long bitrate) {
+    }
+
+    /**
+     * S3 객체의 MP4 헤더를 분석합니다.
+     *
+     * @param objectKey S3 객체 키
+     * @param fileSize 파일 크기 (모르면 0)
+     * @return 분석 결과, MP4가 아니거나 재생 시간을 알 수 없으면 null
+     * @throws RetryableProbeException S3 읽기가 일시적인 오류로 실패한 경우
+     */
+    public Mp4Info probe(String objectKey, long fileSize) {
+        try {
+            ByteBuffer moov = readMoov(objectKey, fileSize);
+            if (moov == null) {
+                log.info("MP4 moov 박스를 찾을 수 없습니다: key={}", objectKey);
+                return null;
+            }
+            return parseMoov(moov, fileSize);
+        } catch (Exception e) {
+            if (RetryableProbeException.isRetryable(e)) {
+                throw new RetryableProbeException("MP4 헤더 읽기 실패: key=" + objectKey, e);
+            }
+            log.warn("MP4 헤더 분석 실패: key={}, error={}", objectKey, e.getMessage());
+            return null;
+        }
+    }
+
+    // 최상위 박스를 따라가며 moov 본문만 읽어옴
+    private ByteBuffer readMoov(String key, long fileSize) throws IOException {
+        byte[] head = s3Service.readRange(key, 0, HEAD_READ_BYTES - 1);
+        long offset = 0;
+
+        for (int i = 0; i < MAX_TOP_LEVEL_BOXES; i++) {
+            if (fileSize > 0 && offset + 8 > fileSize) {
+                return null;
+            }
+
+            // 박스 헤더가 앞부분 버퍼에 있으면 재사용, 아니면 그 위치의 헤더만 읽음
+            ByteBuffer header;
+            if (offset + BOX_HEADER_BYTES <= head.length) {
+                header = ByteBuffer.wrap(head, (int) offset, BOX_HEADER_BYTES);
+            } else {
+                byte[] remote = s3Service.readRange(key, offset, offset + BOX_HEADER_BYTES - 1);
+                header = ByteBuffer.wrap(remote);
+            }
+            if (header.remaining() < 8) {
+                return null;
+            }
+
+            long size = header.getInt() & 0xFFFFFFFFL;
+            String type = fourcc(header);
+            int headerSize = 8;
+            if (size == 1) {
+                if (header.remaining() < 8) {
+                    return null;
+                }
+                size = header.getLong();
+                headerSize = 16;
+            } else if (size == 0) {
+                // 파일 끝까지 이어지는 박스
+                if (fileSize <= 0) {
+                    return null;
+                }
+                size = fileSize - offset;
+            }
+            if (size < headerSize) {
+                return null;
+            }
+
+            if ("moov".equals(type)) {
+                if (size > maxMoovBytes) {
+                    log.info("moov 박스가 너무 큽니다: size={}", size);
+                    return null;
+                }
+                long payloadStart = offset + headerSize;
+                long end = offset + size;
+                if (end <= head.length) {
+                    return ByteBuffer.wrap(Arrays.copyOfRange(head, (int) payloadStart, (int) end));
+                }
+                return ByteBuffer.wrap(s3Service.readRange(key, payloadStart, end - 1));
+            }
+
+            offset += size;
+        }
+        return null;
+    }
+
+    private Mp4Info parseMoov(ByteBuffer moov, long fileSize) {
+        ByteBuffer mvhd = child(moov, "mvhd");
+        if (mvhd == null) {
+            return null;
+        }
+
+        int version = mvhd.get(0) & 0xFF;
+        long timescale;
+        long duration;
+        if (version == 1) {
+            mvhd.position(4 + 16);
+            timescale = mvhd.getInt() & 0xFFFFFFFFL;
+            duration = mvhd.getLong();
+        } else {
+            mvhd.position(4 + 8);
+            timescale = mvhd.getInt() & 0xFFFFFFFFL;
+            duration = mvhd.getInt() & 0xFFFFFFFFL;
+            if (duration == 0xFFFFFFFFL) {
+                duration = 0; // 알 수 없음
+            }
+        }
+        // 조각(fragmented) MP4 등 재생 시간이 헤더에 없는 경우 FFmpeg로 넘김
+        if (timescale <= 0 || duration <= 0) {
+            return null;
+        }
+        double durationSeconds = (double) duration / timescale;
+
+        int width = 0;
+        int height = 0;
+        String codec = null;
+        for (ByteBuffer trak : children(moov, "trak")) {
+            ByteBuffer mdia = child(trak, "mdia");
+            ByteBuffer hdlr = mdia != null ? child(mdia, "hdlr") : null;
+            if (hdlr == null || hdlr.remaining() < 12) {
+                continue;
+            }
+            hdlr.position(8); // version/flags 4 + pre_defined 4
+            if (!"vide".equals(fourcc(hdlr))) {
+                continue;
+            }
+
+            // tkhd의 width/height (16.16 고정소수점)
+            ByteBuffer tkhd = child(trak, "tkhd");
+            if (tkhd != null) {
+                int sizeOffset = (tkhd.get(0) & 0xFF) == 1 ? 88 : 76;
+                if (tkhd.limit() >= sizeOffset + 8) {
+                    width = tkhd.getInt(sizeOffset) >>> 16;
+                    height = tkhd.getInt(sizeOffset + 4) >>> 16;
+                }
+            }
+
+            // stsd 첫 번째 샘플 엔트리 타입이 코덱
+            ByteBuffer stsd = descend(mdia, "minf", "stbl", "stsd");
+            if (stsd != null && stsd.limit() >= 16) {
+                stsd.position(8 + 4); // version/flags 4 + entry_count 4 + entry size 4
+                codec = fourcc(stsd).trim();
+            }
+            break;
+        }
+
+        long bitrate = fileSize > 0 ? (long) (fileSize * 8 / durationSeconds) : 0;
+        return new Mp4Info(durationSeconds, width, height, codec, bitrate);
+    }
+
+    private static ByteBuffer descend(ByteBuffer parent, String... path) {
+        ByteBuffer current = parent;
+        for (String type : path) {
+            if (current == null) {
+                return null;
+            }
+            current = child(current, type);
+        }
+        return current;
+    }
+
+    private static ByteBuffer child(ByteBuffer parent, String type) {
+        List<ByteBuffer> found = findChildren(parent, type, true);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    private static List<ByteBuffer> children(ByteBuffer parent, String type) {
+        return findChildren(parent, type, false);
+    }
+
+    // parent 본문 안의 하위 박스 중 type이 일치하는 박스의 본문(헤더 제외)을 반환
+    private static List<ByteBuffer> findChildren(ByteBuffer parent, String type, boolean firstOnly) {
+        List<ByteBuffer> result = new ArrayList<>();
+        ByteBuffer buf = parent.duplicate();
+        buf.position(0);
+
+        while (buf.remaining() >= 8) {
+            int start = buf.position();
+            long size = buf.getInt() & 0xFFFFFFFFL;
+            String boxType = fourcc(buf);
+            int headerSize = 8;
+            if (size == 1) {
+                if (buf.remaining() < 8) {
+                    break;
+                }
+                size = buf.getLong();
+                headerSize = 16;
+            } else if (size == 0) {
+                size = buf.limit() - start;
+            }
+            if (size < headerSize || start + size > buf.limit()) {
+                break;
+            }
+
+            if (boxType.equals(type)) {
+                ByteBuffer payload = buf.duplicate();
+                payload.limit((int) (start + size));
+                payload.position(start + headerSize);
+                result.add(payload.slice());
+                if (firstOnly) {
+                    break;
+                }
+            }
+            buf.position((int) (start + size));
+        }
+        return result;
+    }
+
+    private static String fourcc(ByteBuffer buf) {
+        byte[] type = new byte[4];
+        buf.get(type);
+        return new String(type, StandardCharsets.ISO_8859_1);
+    }
+}
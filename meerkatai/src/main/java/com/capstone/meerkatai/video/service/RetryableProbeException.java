@@ -0,0 +1,41 @@
+package com.capstone.meerkatai.video.service;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * 일시적인 오류(S3 스로틀링/5xx, 네트워크 오류, 인터럽트 등)로 영상을 분석하지 못한 경우 발생합니다.
+ * <p>
+ * 분석 불가로 확정하지 않고 영상을 분석 중(processing) 상태로 남겨 다음 점검에서 다시 분석합니다.
+ * </p>
+ */
+public class RetryableProbeException extends RuntimeException {
+
+    public RetryableProbeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * 다시 시도하면 성공할 수 있는 오류인지 판단합니다.
+     *
+     * @param e 분석 중 발생한 예외
+     * @return 일시적인 오류 여부
+     */
+    public static boolean isRetryable(Throwable e) {
+        if (e instanceof RetryableProbeException
+                || e instanceof InterruptedException
+                || e instanceof InterruptedIOException
+                || Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        if (e instanceof AmazonServiceException serviceException) {
+            // 4xx(권한, 잘못된 범위 등)는 다시 시도해도 같으므로 스로틀링만 재시도
+            int status = serviceException.getStatusCode();
+            return status >= 500 || status == 429 || "SlowDown".equals(serviceException.getErrorCode());
+        }
+        return e instanceof AmazonClientException || e instanceof IOException;
+    }
+}
@@ -0,0 +1,205 @@
+package com.capstone.meerkatai.video.service;
+
+import com.capstone.meerkatai.video.dto.VideoProbeTarget;
+import com.capstone.meerkatai.video.entity.VideoBackfillCheckpoint;
+import com.capstone.meerkatai.video.repository.VideoBackfillCheckpointRepository;
+import com.capstone.meerkatai.video.repository.VideoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 길이(duration = 0) 또는 재생 가능 여부(videoStatus = false)가 비어 있는 과거 영상을
+ * 다시 분석해 채워 넣는 백필 작업입니다.
+ * <p>
+ * video_id 키셋 순서로 chunk-size 건씩 가져와 concurrency 개까지 병렬로 분석하고,
+ * 결과를 JDBC 배치 UPDATE로 반영한 뒤 마지막 video_id를 체크포인트로 저장합니다.
+ * chunk 사이에 interval-ms만큼 쉬어 실시간 수집 경로에 주는 부하를 제한하며,
+ * 서버가 재시작되어도 체크포인트부터 이어서 처리합니다.
+ * </p>
+ * <p>
+ * chunk 처리는 분석이 끝날 때까지 기다리므로 공용 @Scheduled 스레드가 아닌 전용 스케줄러
+ * 스레드에서 실행해, 이벤트 큐 폴링이나 카운트 반영 등 다른 주기 작업을 막지 않습니다.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VideoBackfillService {
+
+    private static final String JOB_NAME = "video-probe-backfill";
+
+    // 이미 채워진 값은 되돌리지 않음
+    private static final String UPDATE_SQL =
+            "UPDATE video SET duration = GREATEST(duration, ?), video_status = (video_status OR ?) " +
+            "WHERE video_id = ? AND (processing IS NULL OR processing = false)";
+
+    private final VideoRepository videoRepository;
+    private final VideoBackfillCheckpointRepository checkpointRepository;
+    private final VideoProbeService videoProbeService;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${video.backfill.enabled:false}")
+    private boolean enabled;
+
+    @Value("${video.backfill.chunk-size:100}")
+    private int chunkSize;
+
+    // 동시에 분석할 영상 수 (실시간 분석 풀과 별도)
+    @Value("${video.backfill.concurrency:2}")
+    private int concurrency;
+
+    // chunk 처리 후 다음 chunk까지 쉬는 시간
+    @Value("${video.backfill.interval-ms:5000}")
+    private long intervalMs;
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduler;
+    private final AtomicLong checkpointValue = new AtomicLong();
+
+    private Counter repairedCounter;
+    private Counter unrepairedCounter;
+    private Timer chunkTimer;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "video-backfill-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("video.backfill.checkpoint", checkpointValue, AtomicLong::get)
+                .description("백필 작업이 마지막으로 처리한 video_id")
+                .register(meterRegistry);
+        repairedCounter = meterRegistry.counter("video.backfill.rows", "result", "repaired");
+        unrepairedCounter = meterRegistry.counter("video.backfill.rows", "result", "unrepaired");
+        chunkTimer = meterRegistry.timer("video.backfill.chunk");
+
+        if (enabled) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "video-backfill-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::runChunkSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        executor.shutdownNow();
+    }
+
+    // 예외가 나도 다음 주기가 취소되지 않도록 처리
+    private void runChunkSafely() {
+        try {
+            runChunk();
+        } catch (RetryableProbeException e) {
+            log.warn("{}, 같은 chunk를 다음 주기에 다시 처리", e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("영상 분석 백필 chunk 처리 실패, 다음 주기에 재시도", e);
+        }
+    }
+
+    /**
+     * 체크포인트 이후의 대상 영상을 한 chunk 처리합니다.
+     * 모든 대상을 처리하면 완료로 기록하고 이후에는 아무것도 하지 않습니다.
+     */
+    public void runChunk() {
+        if (!enabled) {
+            return;
+        }
+
+        VideoBackfillCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME)
+                .orElseGet(() -> VideoBackfillCheckpoint.builder()
+                        .jobName(JOB_NAME)
+                        .lastVideoId(0L)
+                        .completed(false)
+                        .build());
+        if (checkpoint.getCompleted()) {
+            return;
+        }
+        checkpointValue.set(checkpoint.getLastVideoId());
+
+        List<VideoProbeTarget> targets = videoRepository.findBackfillTargets(
+                checkpoint.getLastVideoId(), PageRequest.of(0, chunkSize));
+        if (targets.isEmpty()) {
+            checkpoint.setCompleted(true);
+            checkpointRepository.save(checkpoint);
+            log.info("영상 분석 백필 완료: lastVideoId={}", checkpoint.getLastVideoId());
+            return;
+        }
+
+        chunkTimer.record(() -> processChunk(targets));
+
+        Long lastVideoId = targets.get(targets.size() - 1).videoId();
+        checkpoint.setLastVideoId(lastVideoId);
+        checkpointRepository.save(checkpoint);
+        checkpointValue.set(lastVideoId);
+    }
+
+    // 일시적인 오류로 분석하지 못한 영상이 있으면 예외를 던져 체크포인트를 넘기지 않음
+    private void processChunk(List<VideoProbeTarget> targets) {
+        List<CompletableFuture<Object[]>> futures = new ArrayList<>(targets.size());
+        for (VideoProbeTarget target : targets) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    VideoProbeService.ProbeResult result = videoProbeService.probeObject(target.filePath());
+                    return new Object[]{(long) result.durationSeconds(), result.playable(), target.videoId()};
+                } catch (RetryableProbeException e) {
+                    log.warn("영상 분석 백필 일시 오류: videoId={}, error={}", target.videoId(), e.getMessage());
+                    return null;
+                }
+            }, executor));
+        }
+
+        List<Object[]> updates = new ArrayList<>(targets.size());
+        int retryable = 0;
+        for (CompletableFuture<Object[]> future : futures) {
+            Object[] row = future.join();
+            if (row == null) {
+                retryable++;
+            } else if ((long) row[0] > 0 || (boolean) row[1]) {
+                updates.add(row);
+                repairedCounter.increment();
+            } else {
+                unrepairedCounter.increment();
+            }
+        }
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        }
+        log.info("영상 분석 백필 chunk 처리: size={}, repaired={}", targets.size(), updates.size());
+
+        // 반영한 값은 되돌리지 않는 UPDATE이므로 같은 chunk를 다시 처리해도 안전
+        if (retryable > 0) {
+            throw new RetryableProbeException("영상 분석 백필 chunk 재시도 필요: retryable=" + retryable, null);
+        }
+    }
+}
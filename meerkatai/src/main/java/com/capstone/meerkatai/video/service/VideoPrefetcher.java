@@ -0,0 +1,239 @@
+package com.capstone.meerkatai.video.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.data.util.Pair;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 다중 영상 다운로드를 위한 선읽기(prefetch) 파이프라인입니다.
+ * <p>
+ * 현재 ZIP에 기록 중인 영상 뒤의 N개 영상을 공용 스레드 풀에서 미리 열고 메모리에 버퍼링합니다.
+ * 요청당 버퍼 총량은 {@code video.download.prefetch.max-buffer-bytes}로 제한되며,
+ * 예산이 부족하면 선읽기를 멈추고 열린 스트림만 유지했다가 차례가 오면 나머지를 직접 읽습니다.
+ * 따라서 S3 왕복 지연은 서로 겹쳐지고, 메모리 사용량은 영상 개수와 무관하게 상한이 있습니다.
+ * </p>
+ */
+@Slf4j
+@Component
+public class VideoPrefetcher {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    // 전체 요청이 공유하는 선읽기 스레드 수
+    @Value("${video.download.prefetch.threads:16}")
+    private int threads;
+
+    // 요청당 동시에 미리 여는 영상 수
+    @Value("${video.download.prefetch.window:4}")
+    private int window;
+
+    // 요청당 선읽기 버퍼 최대 크기 (바이트)
+    @Value("${video.download.prefetch.max-buffer-bytes:67108864}")
+    private long maxBufferBytes;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "video-prefetch-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        executor = pool;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 다운로드 요청 하나에 대한 선읽기 세션을 시작합니다.
+     *
+     * @param sources (ZIP 항목 이름, 스트림 공급자) 목록
+     * @return 순서대로 영상을 꺼낼 수 있는 세션 (사용 후 반드시 close)
+     */
+    public Session open(List<Pair<String, InputStreamSource>> sources) {
+        return new Session(sources);
+    }
+
+    /**
+     * 요청 단위 선읽기 세션
+     */
+    public class Session implements AutoCloseable {
+
+        private final List<Pair<String, InputStreamSource>> sources;
+        private final List<Future<Clip>> futures = new ArrayList<>();
+        private final Semaphore budget;
+        private int next = 0;
+        private volatile boolean closed = false;
+
+        private Session(List<Pair<String, InputStreamSource>> sources) {
+            this.sources = sources;
+            this.budget = new Semaphore((int) Math.max(1, Math.min(Integer.MAX_VALUE, maxBufferBytes / CHUNK_SIZE)));
+            fill();
+        }
+
+        public boolean hasNext() {
+            return next < sources.size();
+        }
+
+        /**
+         * 다음 영상을 꺼냅니다. 열기에 실패한 영상은 건너뛰도록 null을 반환합니다.
+         */
+        public Clip take() throws IOException {
+            Future<Clip> future = futures.get(next);
+            futures.set(next, null);
+            String name = sources.get(next).getFirst();
+            next++;
+            fill();
+
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                log.error("비디오 스트림 생성 중 오류 발생: {} ({})", name, e.getCause().getMessage());
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("영상 선읽기 대기 중 인터럽트 발생", e);
+            }
+        }
+
+        // 현재 위치 기준 window 개까지 선읽기 작업 제출
+        private void fill() {
+            while (futures.size() < sources.size() && futures.size() < next + window) {
+                Pair<String, InputStreamSource> source = sources.get(futures.size());
+                futures.add(executor.submit(() -> prefetch(source)));
+            }
+        }
+
+        private Clip prefetch(Pair<String, InputStreamSource> source) throws IOException {
+            Clip clip = new Clip(source.getFirst(), source.getSecond().getInputStream(), budget);
+            clip.fill(this);
+            if (closed) {
+                clip.discard();
+            }
+            return clip;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            for (int i = next; i < futures.size(); i++) {
+                Future<Clip> future = futures.get(i);
+                if (future == null) {
+                    continue;
+                }
+                if (!future.cancel(true) && future.isDone()) {
+                    try {
+                        future.get().discard();
+                    } catch (Exception ignored) {
+                        // 실패한 선읽기는 정리할 스트림이 없음
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 선읽기된 영상 하나
+     */
+    public static class Clip {
+
+        private final String name;
+        private final InputStream in;
+        private final Semaphore budget;
+        private final Deque<byte[]> chunks = new ArrayDeque<>();
+        private boolean eof = false;
+
+        private Clip(String name, InputStream in, Semaphore budget) {
+            this.name = name;
+            this.in = in;
+            this.budget = budget;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // 예산이 허락하는 만큼 청크 단위로 미리 읽기 (예산이 없으면 기다리지 않고 중단)
+        private void fill(Session session) throws IOException {
+            try {
+                while (!session.closed && budget.tryAcquire()) {
+                    byte[] chunk = in.readNBytes(CHUNK_SIZE);
+                    if (chunk.length == 0) {
+                        budget.release();
+                        eof = true;
+                        break;
+                    }
+                    chunks.add(chunk);
+                    if (chunk.length < CHUNK_SIZE) {
+                        eof = true;
+                        break;
+                    }
+                }
+                if (eof) {
+                    in.close();
+                }
+            } catch (IOException e) {
+                discard();
+                throw e;
+            }
+        }
+
+        /**
+         * 버퍼링된 데이터를 먼저 쓰고, 남은 부분은 원본 스트림에서 직접 복사합니다.
+         */
+        public void transferTo(OutputStream out, byte[] buffer) throws IOException {
+            try {
+                byte[] chunk;
+                while ((chunk = chunks.poll()) != null) {
+                    out.write(chunk);
+                    budget.release();
+                }
+                if (!eof) {
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                    }
+                }
+            } finally {
+                discard();
+            }
+        }
+
+        private void discard() {
+            budget.release(chunks.size());
+            chunks.clear();
+            try {
+                in.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.capstone.meerkatai.video.service;
+
+import com.capstone.meerkatai.common.dto.S3ObjectInfo;
+import com.capstone.meerkatai.global.service.S3Service;
+import com.capstone.meerkatai.video.entity.Video;
+import com.capstone.meerkatai.video.repository.VideoRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 영상 길이/재생 가능 여부 분석 서비스
+ * <p>
+ * 분석은 크기가 제한된 전용 스레드 풀에서 수행되며, 이상행동 수집 경로는 Video를
+ * 분석 중(processing) 상태로 먼저 저장하고 바로 다음 단계로 넘어갑니다.
+ * 분석이 끝나면 Video의 duration, videoStatus를 갱신합니다.
+ * </p>
+ * <p>
+ * 분석에 성공한 결과만 S3 ETag 기준으로 캐시되어 같은 영상으로 Webhook이 다시 와도 재분석하지 않습니다.
+ * 풀이 가득 차 넘긴 영상, 서버 재시작으로 남은 영상, S3 스로틀링/네트워크 오류 등
+ * 일시적인 오류로 분석하지 못한 영상은 주기적인 점검에서 다시 분석합니다.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VideoProbeService {
+
+    private final VideoRepository videoRepository;
+    private final S3Service s3Service;
+    private final Mp4HeaderProbe mp4HeaderProbe;
+
+    // 동시에 실행할 분석 수 (FFmpeg 세션 상한)
+    @Value("${video.probe.threads:2}")
+    private int probeThreads;
+
+    @Value("${video.probe.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${video.probe.etag-cache.max-size:10000}")
+    private int etagCacheMaxSize;
+
+    // 점검 1회에 다시 분석 요청할 최대 영상 수
+    @Value("${video.probe.sweep-batch-size:50}")
+    private int sweepBatchSize;
+
+    private ThreadPoolExecutor executor;
+    private Map<String, ProbeResult> resultsByEtag;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 영상 분석 결과
+     *
+     * @param durationSeconds 재생 시간 (초)
+     * @param playable 재생 가능 여부
+     */
+    public record ProbeResult(double durationSeconds, boolean playable) {
+
+        /**
+         * 길이 또는 재생 가능 여부를 알아낸 결과인지 여부 (캐시 대상)
+         */
+        public boolean analyzed() {
+            return durationSeconds > 0 || playable;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                probeThreads, probeThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "video-probe-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        int maxSize = etagCacheMaxSize;
+        resultsByEtag = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ProbeResult> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 같은 ETag로 이미 분석한 결과가 있으면 반환합니다.
+     *
+     * @param eTag S3 객체 ETag
+     * @return 캐시된 분석 결과, 없으면 null
+     */
+    public ProbeResult findCached(String eTag) {
+        return eTag != null ? resultsByEtag.get(eTag) : null;
+    }
+
+    /**
+     * 분석 중 상태로 저장된 영상의 분석을 요청합니다.
+     * 트랜잭션 안에서 호출되면 커밋 후에 요청하므로 분석 결과가 아직 없는 행을 덮어쓰지 않습니다.
+     *
+     * @param videos 저장되어 ID가 부여된 영상 목록
+     */
+    public void submitAfterCommit(List<Video> videos) {
+        List<Long> videoIds = videos.stream()
+                .filter(video -> Boolean.TRUE.equals(video.getProcessing()))
+                .map(Video::getVideoId)
+                .toList();
+        if (videoIds.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    videoIds.forEach(VideoProbeService.this::submit);
+                }
+            });
+        } else {
+            videoIds.forEach(this::submit);
+        }
+    }
+
+    /**
+     * 분석 중 상태로 남아 있는 영상을 주기적으로 다시 분석 요청합니다.
+     * (풀 포화로 넘긴 영상, 분석 중 서버가 재시작된 영상)
+     */
+    @Scheduled(fixedDelayString = "${video.probe.sweep-interval-ms:30000}")
+    public void sweep() {
+        int free = executor.getQueue().remainingCapacity();
+        if (free == 0) {
+            return;
+        }
+        for (Long videoId : videoRepository.findProcessingVideoIds(PageRequest.of(0, Math.min(free, sweepBatchSize)))) {
+            if (!submit(videoId)) {
+                break;
+            }
+        }
+    }
+
+    private boolean submit(Long videoId) {
+        if (!inFlight.add(videoId)) {
+            return true; // 이미 분석 중
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    probe(videoId);
+                } finally {
+                    inFlight.remove(videoId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(videoId);
+            log.debug("영상 분석 대기열 포화, 분석 연기: videoId={}", videoId);
+            return false;
+        }
+    }
+
+    private void probe(Long videoId) {
+        Video video = videoRepository.findById(videoId).orElse(null);
+        if (video == null || !Boolean.TRUE.equals(video.getProcessing())) {
+            return;
+        }
+
+        ProbeResult result;
+        try {
+            result = probeObject(video.getFilePath());
+        } catch (RetryableProbeException e) {
+            // 분석 중 상태로 남겨 다음 점검에서 다시 분석
+            log.warn("영상 분석 일시 오류, 다음 점검에서 재시도: videoId={}, error={}", videoId, e.getMessage());
+            return;
+        }
+        videoRepository.completeProbe(videoId, (long) result.durationSeconds(), result.playable());
+        log.info("영상 분석 완료: videoId={}, duration={}초, playable={}", videoId, result.durationSeconds(), result.playable());
+    }
+
+    /**
+     * S3 영상 객체를 분석합니다. (DB는 갱신하지 않음)
+     * 같은 ETag의 결과가 캐시에 있으면 재사용하고, 객체가 없거나 영상으로 분석할 수 없으면
+     * 재생 불가로 반환합니다.
+     *
+     * @param videoUrl 영상 S3 URL
+     * @return 분석 결과
+     * @throws RetryableProbeException S3 스로틀링/네트워크 오류 등 일시적인 오류로 분석하지 못한 경우
+     */
+    public ProbeResult probeObject(String videoUrl) {
+        String videoKey = s3Service.extractS3Key(videoUrl);
+        if (videoKey == null) {
+            log.error("영상 분석 불가 (S3 URL 아님): url={}", videoUrl);
+            return new ProbeResult(0, false);
+        }
+
+        try {
+            S3ObjectInfo objectInfo = s3Service.getObjectInfo(videoKey);
+            if (objectInfo == null) {
+                // HEAD 실패가 객체 없음 때문인지 일시적인 오류 때문인지 확인
+                if (!s3Service.objectExists(videoKey)) {
+                    log.error("영상 분석 불가 (S3 객체 없음): key={}", videoKey);
+                    return new ProbeResult(0, false);
+                }
+                throw new RetryableProbeException("S3 메타데이터 조회 실패: key=" + videoKey, null);
+            }
+            String eTag = objectInfo.eTag();
+
+            ProbeResult cached = findCached(eTag);
+            if (cached != null) {
+                log.info("ETag 캐시에서 영상 분석 결과 재사용: eTag={}", eTag);
+                return cached;
+            }
+
+            ProbeResult result = analyze(videoUrl, videoKey, objectInfo.size());
+            // 분석에 실패한 결과는 캐시하지 않음 (같은 객체로 다시 요청되면 재분석)
+            if (eTag != null && result.analyzed()) {
+                resultsByEtag.put(eTag, result);
+            }
+            return result;
+        } catch (Exception e) {
+            if (RetryableProbeException.isRetryable(e)) {
+                throw e instanceof RetryableProbeException retryable
+                        ? retryable
+                        : new RetryableProbeException("영상 분석 일시 오류: url=" + videoUrl, e);
+            }
+            // 영상으로 분석할 수 없는 객체는 재생 불가로 확정해 반복 분석하지 않음
+            log.error("영상 분석 실패: url={}, error={}", videoUrl, e.getMessage());
+            return new ProbeResult(0, false);
+        }
+    }
+
+    // MP4 헤더(moov)만 읽어 분석하고, 헤더로 분석할 수 없는 파일만 FFmpeg로 분석
+    // (헤더 단계에서 객체 읽기가 성공했으므로 FFmpeg 실패는 분석 불가로 봄)
+    private ProbeResult analyze(String videoUrl, String videoKey, long fileSize) {
+        Mp4HeaderProbe.Mp4Info mp4Info = mp4HeaderProbe.probe(videoKey, fileSize);
+        if (mp4Info != null) {
+            log.info("MP4 헤더에서 영상 정보 조회: duration={}초, {}x{}, codec={}, bitrate={}bps",
+                    mp4Info.durationSeconds(), mp4Info.width(), mp4Info.height(), mp4Info.codec(), mp4Info.bitrate());
+            return new ProbeResult(mp4Info.durationSeconds(), mp4Info.codec() != null);
+        }
+
+        log.info("FFmpeg로 영상 분석 시도");
+        double[] analyzed = analyzeVideoWithFFmpeg(videoUrl, videoKey);
+        return new ProbeResult(analyzed[0], analyzed[1] > 0);
+    }
+
+    /**
+     * FFmpeg를 사용하여 비디오 분석
+     *
+     * @param videoUrl 비디오 URL
+     * @param objectKey S3 객체 키
+     * @return [재생 시간, 재생 가능 여부] 배열
+     */
+    private double[] analyzeVideoWithFFmpeg(String videoUrl, String objectKey) {
+        double duration = 0;
+        boolean playable = false;
+
+        try {
+            // Presigned URL 생성
+            URL presignedUrl = s3Service.generatePresignedUrlForDownload(objectKey);
+
+            try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(presignedUrl.toString())) {
+                grabber.start();
+                duration = grabber.getLengthInTime() / 1_000_000.0; // 초 단위
+                playable = grabber.getLengthInFrames() > 0;
+                grabber.stop();
+
+                log.info("FFmpeg로 비디오 분석 성공: duration={}초, playable={}", duration, playable);
+            } catch (Exception e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new RetryableProbeException("FFmpeg 분석 중단", e);
+                }
+                log.error("FFmpeg 비디오 분석 실패: {}", e.getMessage());
+            }
+        } catch (RetryableProbeException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Presigned URL 생성 중 오류: {}", e.getMessage());
+        }
+
+        return new double[]{duration, playable ? 1.0 : 0.0};
+    }
+}
@@ -1,10 +1,13 @@
 package com.capstone.meerkatai.video.service;
 
-import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.capstone.meerkatai.alarm.dto.AnomalyVideoMetadataRequest;
 import com.capstone.meerkatai.anomalybehavior.entity.AnomalyBehavior;
+import com.capstone.meerkatai.anomalybehavior.entity.AnomalyBehaviorType;
 import com.capstone.meerkatai.anomalybehavior.repository.AnomalyBehaviorRepository;
+import com.capstone.meerkatai.common.dto.KeysetCursor;
+import com.capstone.meerkatai.common.dto.S3ObjectInfo;
 import com.capstone.meerkatai.global.service.S3Service;
+import com.capstone.meerkatai.storagespace.service.StorageSpaceService;
 import com.capstone.meerkatai.streamingvideo.entity.StreamingVideo;
 import com.capstone.meerkatai.streamingvideo.repository.StreamingVideoRepository;
 import com.capstone.meerkatai.user.entity.User;
@@ -14,16 +17,18 @@ import com.capstone.meerkatai.video.dto.VideoDetailsResponse;
 import com.capstone.meerkatai.video.dto.VideoListRequest;
 import com.capstone.meerkatai.video.entity.Video;
 import com.capstone.meerkatai.video.repository.VideoRepository;
+import com.capstone.meerkatai.video.repository.VideoSpecifications;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.util.Pair;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.InputStream;
-import java.net.HttpURLConnection;
 import java.net.URL;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -31,7 +36,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -43,6 +47,8 @@ public class VideoService {
     private final StreamingVideoRepository streamingVideoRepository;
     private final AnomalyBehaviorRepository anomalyBehaviorRepository;
     private final S3Service s3Service;
+    private final StorageSpaceService storageSpaceService;
+    private final VideoProbeService videoProbeService;
 
     //    필터 값 없는 경우(홈페이지 이동 OR 필터 값 없이 페이지 이동)
 //    {
@@ -51,46 +57,40 @@ public class VideoService {
 //        "anomaly_behavior_type":,
 //        "page": 1
 //    }
-    public GetVideoListResponse getVideosByUser(Long userId, int page) {
+    public GetVideoListResponse getVideosByUser(Long userId, int page, String cursor) {
         final int limit = 6;
-        int offset = (page - 1) * limit;
-
-        // 전체 영상 리스트 가져오기 (페이징 없는 상태)
-        List<Video> allVideos = videoRepository.findByUserUserIdOrderByAnomalyBehavior_AnomalyTimeDesc(userId);
-        //List<Video> allVideos = videoRepository.findByUserUserId(userId);
-        int total = allVideos.size();
-        int pages = (int) Math.ceil((double) total / limit);
-
-        // Java로 페이징 처리
-        List<Video> pagedVideos = allVideos.stream()
-            .skip(offset)
-            .limit(limit)
-            .toList();
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Integer total = null;
+        Integer pages = null;
+        List<Video> pagedVideos;
+        boolean hasNext;
+        if (after != null) {
+            // 커서 기반 조회 (무한 스크롤) - 한 건 더 조회해서 다음 페이지 존재 여부 판단
+            // 반환할 행만 읽도록 전체 개수(COUNT)는 세지 않음
+            List<Video> fetched = videoRepository.findPageByUserAfter(
+                userId, after.getTime(), after.getId(), PageRequest.of(0, limit + 1));
+            hasNext = fetched.size() > limit;
+            pagedVideos = hasNext ? fetched.subList(0, limit) : fetched;
+        } else {
+            // 페이지 번호 기반 조회 (기존 방식 호환) - OFFSET/LIMIT을 DB에서 적용
+            total = (int) videoRepository.countByUser(userId);
+            pages = (int) Math.ceil((double) total / limit);
+            pagedVideos = videoRepository.findPageByUser(userId, PageRequest.of(page - 1, limit));
+            hasNext = (long) page * limit < total;
+        }
+
+        String nextCursor = hasNext && !pagedVideos.isEmpty()
+            ? toCursor(pagedVideos.get(pagedVideos.size() - 1))
+            : null;
 
         // 엔티티 → DTO 변환
         List<GetVideoListResponse.VideoDto> videoDtoList = pagedVideos.stream()
-            .map(video -> {
-                // S3 URL을 presigned URL로 변환
-                String videoPath = generatePresignedUrlIfNeeded(video.getFilePath());
-                String thumbnailPath = generatePresignedUrlIfNeeded(video.getThumbnailPath());
-                
-                return new GetVideoListResponse.VideoDto(
-                    video.getVideoId(),
-                    videoPath,
-                    thumbnailPath,
-                    video.getDuration(),
-                    video.getFileSize(),
-                    video.getVideoStatus(),
-                    video.getAnomalyBehavior().getAnomalyTime().toString(),
-                    video.getStreamingVideo().getStreamingVideoId(),
-                    video.getAnomalyBehavior().getAnomalyBehaviorType(),
-                    video.getStreamingVideo().getCctv().getCctvName()
-                );
-            })
+            .map(this::toVideoDto)
             .collect(Collectors.toList());
 
         // pagination 구성
-        GetVideoListResponse.Pagination pagination = new GetVideoListResponse.Pagination(total, page, pages, limit);
+        GetVideoListResponse.Pagination pagination = new GetVideoListResponse.Pagination(total, page, pages, limit, nextCursor);
         GetVideoListResponse.Data data = new GetVideoListResponse.Data(videoDtoList, pagination);
 
         return new GetVideoListResponse("success", data);
@@ -99,10 +99,8 @@ public class VideoService {
 
     //    필터 값 있는 경우(날짜 선택 OR 유형 선택 OR 날짜, 유형 선택 OR )
     public GetVideoListResponse getVideosByFilters(Long userId, VideoListRequest req) {
-        // 전체 영상 리스트 가져오기 (페이징 없는 상태)
-        List<Video> allVideos = videoRepository.findByUserUserIdOrderByAnomalyBehavior_AnomalyTimeDesc(userId);
-        //List<Video> allVideos = videoRepository.findByUserUserId(userId);
-        Stream<Video> stream = allVideos.stream();
+        // 필터 조건은 모두 SQL WHERE 절로 변환 (사용자 + 날짜 + 유형)
+        Specification<Video> spec = Specification.where(VideoSpecifications.ownedBy(userId));
 
         // 날짜 필터 적용
         if (req.getStart_date() != null && !req.getStart_date().isBlank()
@@ -112,94 +110,68 @@ public class VideoService {
             LocalDate start = LocalDate.parse(req.getStart_date(), formatter);
             LocalDate end = LocalDate.parse(req.getEnd_date(), formatter);
 
-            stream = stream.filter(video -> {
-                LocalDate date = video.getAnomalyBehavior().getAnomalyTime().toLocalDate();
-                return !date.isBefore(start) && !date.isAfter(end);
-            });
+            spec = spec.and(VideoSpecifications.anomalyDateBetween(start, end));
         }
 
-//        // 이상행동 유형 필터 적용
-//        if (req.getAnomaly_behavior_type() != null && !req.getAnomaly_behavior_type().isBlank()) {
-//            stream = stream.filter(video ->
-//                video.getAnomalyBehavior().getAnomalyBehaviorType().equalsIgnoreCase(req.getAnomaly_behavior_type())
-//            );
-//        }
-
         // 이상행동 유형 필터 적용
-        if (req.getAnomaly_behavior_type() != null && !req.getAnomaly_behavior_type().isBlank()) {
-            String typeKey = req.getAnomaly_behavior_type().toLowerCase();
-
-            // typeX -> 키워드 매핑
-            Map<String, String> keywordMap = Map.of(
-                    "type1", "전도",
-                    "type2", "파손",
-                    "type3", "방화",
-                    "type4", "흡연",
-                    "type5", "유기",
-                    "type6", "절도",
-                    "type7", "폭행"
-            );
-
-            String targetKeyword = keywordMap.get(typeKey);
-
-            if (targetKeyword != null) {
-                stream = stream.filter(video ->
-                        video.getAnomalyBehavior() != null &&
-                                video.getAnomalyBehavior().getAnomalyBehaviorType() != null &&
-                                video.getAnomalyBehavior().getAnomalyBehaviorType().contains(targetKeyword)
-                );
-            }
+        // typeX -> 수집 시 저장된 유형 코드로 비교
+        AnomalyBehaviorType type = AnomalyBehaviorType.fromKey(req.getAnomaly_behavior_type());
+        if (type != null) {
+            spec = spec.and(VideoSpecifications.anomalyTypeIs(type.getCode()));
         }
 
-
-
-        List<Video> filtered = stream.toList();
-
         // 페이지 값이 null이거나 1보다 작으면 기본값 1로 설정
         int page = (req.getPage() == null || req.getPage() < 1) ? 1 : req.getPage();
         int limit = 6;
-        int total = filtered.size();
-        int pages = (int) Math.ceil((double) total / limit);
-        int offset = (page - 1) * limit;
 
-        List<Video> pagedVideos = filtered.stream().skip(offset).limit(limit).toList();
+        // 응답에 필요한 연관 엔티티를 fetch join으로 함께 조회 (조인 재사용을 위해 조건보다 먼저 적용)
+        Specification<Video> listSpec = Specification.where(VideoSpecifications.fetchForList()).and(spec);
+
+        KeysetCursor after = KeysetCursor.decode(req.getCursor());
+        Integer total = null;
+        Integer pages = null;
+        List<Video> pagedVideos;
+        boolean hasNext;
+        if (after != null) {
+            // 커서 기반 조회 - 한 건 더 조회해서 다음 페이지 존재 여부 판단 (전체 개수는 세지 않음)
+            List<Video> fetched = videoRepository.findBy(
+                listSpec.and(VideoSpecifications.before(after.getTime(), after.getId())),
+                q -> q.sortBy(VideoSpecifications.LATEST_FIRST).limit(limit + 1).all());
+            hasNext = fetched.size() > limit;
+            pagedVideos = hasNext ? fetched.subList(0, limit) : fetched;
+        } else {
+            // 페이지 번호 기반 조회 - OFFSET/LIMIT을 DB에서 적용 (전체 건수는 COUNT 한 번만)
+            total = (int) videoRepository.count(spec);
+            pages = (int) Math.ceil((double) total / limit);
+            pagedVideos = videoRepository.findPage(
+                listSpec, VideoSpecifications.LATEST_FIRST, (page - 1) * limit, limit);
+            hasNext = (long) page * limit < total;
+        }
+
+        String nextCursor = hasNext && !pagedVideos.isEmpty()
+            ? toCursor(pagedVideos.get(pagedVideos.size() - 1))
+            : null;
 
         List<GetVideoListResponse.VideoDto> videoDtoList = pagedVideos.stream()
-            .map(video -> {
-                // S3 URL을 presigned URL로 변환
-                String videoPath = generatePresignedUrlIfNeeded(video.getFilePath());
-                String thumbnailPath = generatePresignedUrlIfNeeded(video.getThumbnailPath());
-                
-                return new GetVideoListResponse.VideoDto(
-                    video.getVideoId(),
-                    videoPath,
-                    thumbnailPath,
-                    video.getDuration(),
-                    video.getFileSize(),
-                    video.getVideoStatus(),
-                    video.getAnomalyBehavior().getAnomalyTime().toString(),
-                    video.getStreamingVideo().getStreamingVideoId(),
-                    video.getAnomalyBehavior().getAnomalyBehaviorType(),
-                    video.getStreamingVideo().getCctv().getCctvName()
-                );
-            })
+            .map(this::toVideoDto)
             .toList();
 
-        GetVideoListResponse.Pagination pagination = new GetVideoListResponse.Pagination(total, page, pages, limit);
+        GetVideoListResponse.Pagination pagination = new GetVideoListResponse.Pagination(total, page, pages, limit, nextCursor);
         return new GetVideoListResponse("success", new GetVideoListResponse.Data(videoDtoList, pagination));
     }
 
 
     // 비디오 다운로드 메소드
-    public List<Pair<String, InputStream>> getVideoStreams(Long userId, List<Long> videoIds) {
+    // 스트림은 바로 열지 않고 공급자(InputStreamSource)만 만들어 두며, 실제 열기는 VideoPrefetcher가 병렬로 수행
+    public List<Pair<String, InputStreamSource>> getVideoSources(Long userId, List<Long> videoIds) {
         List<Video> videos = videoRepository.findByUser_UserIdAndVideoIdIn(userId, videoIds);
 
-        List<Pair<String, InputStream>> result = new ArrayList<>();
+        List<Pair<String, InputStreamSource>> result = new ArrayList<>();
 
         for (Video video : videos) {
             try {
                 String path = video.getFilePath();
-                InputStream stream;
+                InputStreamSource source;
 
                 if (path.startsWith("http")) {
                     // S3 URL인 경우 Presigned URL 생성하여 처리
@@ -207,19 +179,19 @@ public class VideoService {
                         // 객체 키 추출 (S3 URL에서 버킷 이름 이후 부분)
                         String objectKey = s3Service.extractS3Key(path);
                         URL presignedUrl = s3Service.generatePresignedUrlForDownload(objectKey);
-                        stream = presignedUrl.openStream();
+                        source = presignedUrl::openStream;
                     } else {
                         // 일반 HTTP URL
                         URL url = new URL(path);
-                        stream = url.openStream();
+                        source = url::openStream;
                     }
                 } else {
                     File file = new File(path);
                     if (!file.exists()) continue;
-                    stream = new FileInputStream(file);
+                    source = () -> new FileInputStream(file);
                 }
 
-                result.add(Pair.of("video_" + video.getVideoId() + ".mp4", stream));
+                result.add(Pair.of("video_" + video.getVideoId() + ".mp4", source));
             } catch (Exception e) {
                 log.error("비디오 스트림 생성 중 오류 발생: {}", e.getMessage());
             }
@@ -229,6 +201,7 @@ public class VideoService {
     }
 
     //비디오 삭제 메소드
+    @Transactional
     public List<Long> deleteVideosByUser(Long userId, List<Long> videoIds) {
         // 1. userId와 videoIds로 사용자 본인의 영상만 필터링
         List<Video> videos = videoRepository.findByUser_UserIdAndVideoIdIn(userId, videoIds);
@@ -254,8 +227,9 @@ public class VideoService {
             }
         }
 
-        // 2. DB에서 삭제
+        // 2. DB에서 삭제 + 삭제된 영상 크기만큼 저장공간 사용량 차감
         videoRepository.deleteAll(videos);
+        storageSpaceService.addUsedSpace(userId, -videos.stream().mapToLong(Video::getFileSize).sum());
 
         // 3. 실제 삭제된 ID만 반환
         return videos.stream()
@@ -265,7 +239,7 @@ public class VideoService {
 
     // 비디오 세부 내용 조회 메소드
     public VideoDetailsResponse getVideoDetails(Long userId, Long videoId) {
-        Video video = videoRepository.findByUserUserIdAndVideoId(userId, videoId)
+        Video video = videoRepository.findDetailByUserIdAndVideoId(userId, videoId)
             .orElseThrow(() -> new RuntimeException("비디오 없음"));
 
         // S3 URL을 presigned URL로 변환
@@ -302,6 +276,23 @@ public class VideoService {
         StreamingVideo streamingVideo = streamingVideos.get(0);
         log.info("StreamingVideo 조회 성공: id={}", streamingVideo.getStreamingVideoId());
 
+        Video saved = videoRepository.save(buildVideo(request, anomalyBehavior, user, streamingVideo));
+        log.info("✅ 비디오 저장 완료: video_id={}", saved.getVideoId());
+        videoProbeService.submitAfterCommit(List.of(saved));
+        return saved;
+    }
+
+    /**
+     * 요청 메타데이터와 S3 객체 정보로 저장 전 Video 엔티티 생성
+     *
+     * @param request 이상행동 비디오 메타데이터 요청 객체
+     * @param anomalyBehavior 연결할 이상행동
+     * @param user 영상 소유 사용자
+     * @param streamingVideo 영상이 녹화된 스트리밍
+     * @return 저장되지 않은 Video 엔티티
+     */
+    public Video buildVideo(AnomalyVideoMetadataRequest request, AnomalyBehavior anomalyBehavior,
+                            User user, StreamingVideo streamingVideo) {
         // 2. 영상 정보 분석
         String videoUrl = request.getVideoUrl();
         String thumbnailUrl = request.getThumbnailUrl();
@@ -329,25 +320,26 @@ public class VideoService {
         long fileSize = 0;
         double duration = 0;
         boolean playable = false;
-        Map<String, String> userMetadata = null;
+        boolean processing = false;
+        Map<String, String> userMetadata;
 
         try {
             // S3 객체 키 추출
             videoKey = s3Service.extractS3Key(videoUrl);
             log.info("추출된 S3 객체 키: {}", videoKey);
             
-            // S3에서 메타데이터 가져오기
-            ObjectMetadata metadata = s3Service.getObjectMetadata(videoKey);
-            if (metadata != null) {
+            // S3에서 메타데이터 가져오기 (캐시된 HEAD 결과 공유)
+            S3ObjectInfo objectInfo = s3Service.getObjectInfo(videoKey);
+            if (objectInfo != null) {
                 // 파일 크기
-                fileSize = metadata.getContentLength();
+                fileSize = objectInfo.size();
                 log.info("S3 메타데이터에서 파일 크기 조회: {} 바이트", fileSize);
                 
                 // 사용자 정의 메타데이터
-                userMetadata = metadata.getUserMetadata();
+                userMetadata = objectInfo.userMetadata();
                 
                 // 메타데이터에서 재생 시간 정보 가져오기 (있는 경우)
-                if (userMetadata != null && userMetadata.containsKey("video-duration")) {
+                if (userMetadata.containsKey("video-duration")) {
                     try {
                         duration = Double.parseDouble(userMetadata.get("video-duration"));
                         playable = true;
@@ -360,64 +352,64 @@ public class VideoService {
                 log.warn("S3 메타데이터를 가져올 수 없습니다. 대체 방법 시도");
             }
             
-            // 메타데이터에서 재생 시간을 가져오지 못한 경우, FFmpeg로 분석 시도
+            // 메타데이터에서 재생 시간을 가져오지 못한 경우, 같은 ETag의 분석 결과가 있으면 재사용하고
+            // 없으면 분석 중 상태로 저장한 뒤 VideoProbeService가 백그라운드에서 분석
             if (duration <= 0) {
-                log.info("FFmpeg로 영상 분석 시도");
-                analyzeVideoWithFFmpeg(videoUrl, videoKey);
+                VideoProbeService.ProbeResult cached = objectInfo != null ? videoProbeService.findCached(objectInfo.eTag()) : null;
+                if (cached != null) {
+                    duration = cached.durationSeconds();
+                    playable = cached.playable();
+                    log.info("ETag 캐시에서 영상 분석 결과 재사용: duration={}초", duration);
+                } else {
+                    processing = true;
+                }
             }
         } catch (Exception e) {
             log.error("S3 메타데이터 조회 중 오류 발생: {}", e.getMessage());
         }
 
-        // 4. 비디오 엔티티 저장
-        Video video = Video.builder()
+        // 4. 비디오 엔티티 생성
+        return Video.builder()
                 .filePath(videoUrl)
                 .thumbnailPath(thumbnailUrl)
                 .duration((long)duration)
                 .fileSize(fileSize)
                 .videoStatus(playable)
+                .processing(processing)
                 .streamingVideo(streamingVideo)
                 .anomalyBehavior(anomalyBehavior)
                 .user(user)
                 .build();
-
-        Video saved = videoRepository.save(video);
-        log.info("✅ 비디오 저장 완료: video_id={}", saved.getVideoId());
-        return saved;
     }
     
     /**
-     * FFmpeg를 사용하여 비디오 분석
-     * 
-     * @param videoUrl 비디오 URL
-     * @param objectKey S3 객체 키
-     * @return [재생 시간, 재생 가능 여부] 배열
+     * 영상 리스트 응답용 DTO 변환 (S3 URL은 presigned URL로 변환)
      */
-    private double[] analyzeVideoWithFFmpeg(String videoUrl, String objectKey) {
-        double duration = 0;
-        boolean playable = false;
-        
-        try {
-            // Presigned URL 생성
-            URL presignedUrl = s3Service.generatePresignedUrlForDownload(objectKey);
-            
-            try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(presignedUrl.toString())) {
-                grabber.start();
-                duration = grabber.getLengthInTime() / 1_000_000.0; // 초 단위
-                playable = grabber.getLengthInFrames() > 0;
-                grabber.stop();
-                
-                log.info("FFmpeg로 비디오 분석 성공: duration={}초, playable={}", duration, playable);
-            } catch (Exception e) {
-                log.error("FFmpeg 비디오 분석 실패: {}", e.getMessage());
-            }
-        } catch (Exception e) {
-            log.error("Presigned URL 생성 중 오류: {}", e.getMessage());
-        }
-        
-        return new double[]{duration, playable ? 1.0 : 0.0};
+    private GetVideoListResponse.VideoDto toVideoDto(Video video) {
+        String videoPath = generatePresignedUrlIfNeeded(video.getFilePath());
+        String thumbnailPath = generatePresignedUrlIfNeeded(video.getThumbnailPath());
+
+        return new GetVideoListResponse.VideoDto(
+            video.getVideoId(),
+            videoPath,
+            thumbnailPath,
+            video.getDuration(),
+            video.getFileSize(),
+            video.getVideoStatus(),
+            video.getAnomalyBehavior().getAnomalyTime().toString(),
+            video.getStreamingVideo().getStreamingVideoId(),
+            video.getAnomalyBehavior().getAnomalyBehaviorType(),
+            video.getStreamingVideo().getCctv().getCctvName()
+        );
     }
-    
+
+    /**
+     * 페이지 마지막 영상으로 다음 페이지 커서 생성
+     */
+    private String toCursor(Video last) {
+        return new KeysetCursor(last.getAnomalyBehavior().getAnomalyTime(), last.getVideoId()).encode();
+    }
+
     /**
      * S3 URL인 경우 Presigned URL로 변환, 아닌 경우 원래 URL 반환
      */
@@ -440,46 +432,4 @@ public class VideoService {
         
         return url;
     }
-    
-    /**
-     * 원격 파일 크기 조회 (S3 URL 처리 포함)
-     */
-    private long getRemoteFileSize(String url) {
-        try {
-            // S3 URL인 경우 S3 API로 파일 크기 가져오기
-            if (s3Service.isS3Url(url)) {
-                String objectKey = s3Service.extractS3Key(url);
-                
-                // S3 메타데이터에서 파일 크기 조회
-                long size = s3Service.getObjectSize(objectKey);
-                if (size > 0) {
-                    log.info("S3 메타데이터에서 파일 크기 조회: {} 바이트", size);
-                    return size;
-                }
-                
-                // S3 메타데이터로 조회 실패한 경우 Presigned URL로 시도
-                log.info("Presigned URL로 파일 크기 조회 시도");
-                URL presignedUrl = s3Service.generatePresignedUrlForDownload(objectKey);
-                
-                try {
-                    HttpURLConnection conn = (HttpURLConnection) presignedUrl.openConnection();
-                    conn.setRequestMethod("HEAD");
-                    conn.getInputStream();
-                    return conn.getContentLengthLong();
-                } catch (Exception e) {
-                    log.error("Presigned URL로 파일 크기 조회 실패: {}", e.getMessage());
-                }
-                return 0;
-            } else {
-                // 일반 HTTP URL
-                HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
-                conn.setRequestMethod("HEAD");
-                conn.getInputStream();
-                return conn.getContentLengthLong();
-            }
-        } catch (Exception e) {
-            log.error("파일 크기 확인 실패: {}", e.getMessage());
-            return 0;
-        }
-    }
 }
\ No newline at end of file
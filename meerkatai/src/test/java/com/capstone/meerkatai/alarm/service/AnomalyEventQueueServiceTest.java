@@ -0,0 +1,228 @@
+package com.capstone.meerkatai.alarm.service;
+
+import com.capstone.meerkatai.alarm.dto.AnomalyVideoMetadataRequest;
+import com.capstone.meerkatai.alarm.entity.AnomalyEvent;
+import com.capstone.meerkatai.alarm.entity.AnomalyEventStage;
+import com.capstone.meerkatai.alarm.repository.AnomalyBatchInsertRepository;
+import com.capstone.meerkatai.alarm.repository.AnomalyEventRepository;
+import com.capstone.meerkatai.anomalybehavior.entity.AnomalyBehavior;
+import com.capstone.meerkatai.anomalybehavior.service.AnomalyBehaviorService;
+import com.capstone.meerkatai.dashboard.service.DashboardService;
+import com.capstone.meerkatai.storagespace.service.StorageSpaceService;
+import com.capstone.meerkatai.user.repository.UserRepository;
+import com.capstone.meerkatai.user.service.UserService;
+import com.capstone.meerkatai.video.entity.Video;
+import com.capstone.meerkatai.video.service.VideoProbeService;
+import com.capstone.meerkatai.video.service.VideoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link AnomalyEventQueueService} 임대, 재시도 백오프, FAILED 전환, 묶음 → 개별 처리 전환 단위 테스트
+ * <p>
+ * 워커 스레드 풀은 호출 스레드에서 바로 실행하는 실행기로 바꿔 처리 순서를 고정합니다.
+ * </p>
+ */
+@ExtendWith(MockitoExtension.class)
+class AnomalyEventQueueServiceTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock private AnomalyEventRepository anomalyEventRepository;
+    @Mock private AnomalyBatchInsertRepository anomalyBatchInsertRepository;
+    @Mock private AnomalyBehaviorService anomalyBehaviorService;
+    @Mock private VideoService videoService;
+    @Mock private VideoProbeService videoProbeService;
+    @Mock private DashboardService dashboardService;
+    @Mock private StorageSpaceService storageSpaceService;
+    @Mock private EmailService emailService;
+    @Mock private AnomalyLiveFeedService anomalyLiveFeedService;
+    @Mock private UserService userService;
+    @Mock private UserRepository userRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private AnomalyEventQueueService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AnomalyEventQueueService(anomalyEventRepository, anomalyBatchInsertRepository,
+                anomalyBehaviorService, videoService, videoProbeService, dashboardService, storageSpaceService,
+                emailService, anomalyLiveFeedService, userService, userRepository, objectMapper,
+                transactionManager, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "workerThreads", 1);
+        ReflectionTestUtils.setField(service, "workerQueueCapacity", 10);
+        ReflectionTestUtils.setField(service, "maxPending", 100L);
+        ReflectionTestUtils.setField(service, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(service, "leaseSeconds", 300L);
+        ReflectionTestUtils.setField(service, "batchSize", 50);
+        service.init();
+        service.shutdown();
+        ReflectionTestUtils.setField(service, "executor", new CallerRunsExecutor());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void 임대를_얻지_못하면_처리하지_않는다() {
+        when(anomalyEventRepository.claim(eq(1L), any(), any())).thenReturn(0);
+
+        ReflectionTestUtils.invokeMethod(service, "process", 1L);
+
+        verify(anomalyEventRepository, never()).findById(anyLong());
+        verify(anomalyBehaviorService, never()).saveAnomalyBehavior(any());
+    }
+
+    @Test
+    void 임대는_lease_seconds_만큼_잡는다() {
+        when(anomalyEventRepository.claim(eq(1L), any(), any())).thenAnswer(invocation -> {
+            LocalDateTime now = invocation.getArgument(1);
+            LocalDateTime leaseEnd = invocation.getArgument(2);
+            assertThat(leaseEnd).isEqualTo(now.plusSeconds(300));
+            return 1;
+        });
+        when(anomalyEventRepository.findById(1L)).thenReturn(Optional.empty());
+
+        ReflectionTestUtils.invokeMethod(service, "process", 1L);
+
+        verify(anomalyEventRepository).findById(1L);
+    }
+
+    @Test
+    void 실패하면_시도_횟수를_늘리고_지수_백오프로_재시도를_미룬다() throws Exception {
+        AnomalyEvent event = persistEvent(1L, 1L, 1);
+        when(anomalyEventRepository.claim(eq(1L), any(), any())).thenReturn(1);
+        when(anomalyEventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(anomalyBehaviorService.saveAnomalyBehavior(any())).thenThrow(new IllegalStateException("DB 오류"));
+
+        ReflectionTestUtils.invokeMethod(service, "process", 1L);
+
+        assertThat(event.getStage()).isEqualTo(AnomalyEventStage.PERSIST);
+        assertThat(event.getAttempts()).isEqualTo(2);
+        assertThat(event.getLastError()).isEqualTo("DB 오류");
+        assertThat(event.getLockedUntil()).isNull();
+        // 2번째 실패 → 2^2초 뒤 재시도
+        assertThat(event.getNextAttemptAt()).isCloseTo(LocalDateTime.now().plusSeconds(4), within(2, ChronoUnit.SECONDS));
+        verify(anomalyEventRepository).save(event);
+    }
+
+    @Test
+    void 최대_시도_횟수에_도달하면_FAILED로_남긴다() throws Exception {
+        AnomalyEvent event = persistEvent(1L, 1L, MAX_ATTEMPTS - 1);
+        LocalDateTime previousNextAttempt = event.getNextAttemptAt();
+        when(anomalyEventRepository.claim(eq(1L), any(), any())).thenReturn(1);
+        when(anomalyEventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(anomalyBehaviorService.saveAnomalyBehavior(any())).thenThrow(new IllegalStateException("DB 오류"));
+
+        ReflectionTestUtils.invokeMethod(service, "process", 1L);
+
+        assertThat(event.getStage()).isEqualTo(AnomalyEventStage.FAILED);
+        assertThat(event.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(event.getNextAttemptAt()).isEqualTo(previousNextAttempt);
+        verify(anomalyEventRepository).save(event);
+    }
+
+    @Test
+    void 묶음_저장이_실패하면_이벤트별로_다시_처리해_실패한_이벤트만_재시도한다() throws Exception {
+        AnomalyEvent ok = persistEvent(1L, 1L, 0);
+        AnomalyEvent broken = persistEvent(2L, 2L, 0);
+        when(anomalyEventRepository.claimAll(anyCollection(), any(), any(), anyString())).thenReturn(2);
+        when(anomalyEventRepository.findByLeaseTokenOrderByEventId(anyString())).thenReturn(List.of(ok, broken));
+        // 묶음 처리: 사용자 2가 없어 전체 롤백
+        when(userRepository.findAllById(any())).thenReturn(List.of());
+        when(anomalyEventRepository.findById(1L)).thenReturn(Optional.of(ok));
+        when(anomalyEventRepository.findById(2L)).thenReturn(Optional.of(broken));
+
+        AnomalyBehavior behavior = AnomalyBehavior.builder().anomalyId(100L).build();
+        when(anomalyBehaviorService.saveAnomalyBehavior(any())).thenAnswer(invocation -> {
+            AnomalyVideoMetadataRequest request = invocation.getArgument(0);
+            if (request.getUserId() == 2L) {
+                throw new IllegalArgumentException("해당 사용자 ID가 존재하지 않습니다: 2");
+            }
+            return behavior;
+        });
+        when(videoService.saveVideo(any(), eq(behavior))).thenReturn(Video.builder().fileSize(10L).build());
+
+        ReflectionTestUtils.invokeMethod(service, "processPersistBatch", List.of(1L, 2L));
+
+        verify(anomalyBatchInsertRepository, never()).insertAnomalyBehaviors(any());
+        // 정상 이벤트는 저장 후 알림 단계까지 진행 (알림 대상 사용자 없음 → 완료)
+        assertThat(ok.getAnomalyId()).isEqualTo(100L);
+        assertThat(ok.getStage()).isEqualTo(AnomalyEventStage.DONE);
+        // 문제 이벤트만 재시도 대상으로 남음
+        assertThat(broken.getStage()).isEqualTo(AnomalyEventStage.PERSIST);
+        assertThat(broken.getAttempts()).isEqualTo(1);
+        assertThat(broken.getLeaseToken()).isNull();
+    }
+
+    @Test
+    void 묶음_임대를_하나도_얻지_못하면_처리하지_않는다() {
+        when(anomalyEventRepository.claimAll(anyCollection(), any(), any(), anyString())).thenReturn(0);
+
+        ReflectionTestUtils.invokeMethod(service, "processPersistBatch", List.of(1L, 2L));
+
+        verify(anomalyEventRepository, never()).findByLeaseTokenOrderByEventId(anyString());
+    }
+
+    private AnomalyEvent persistEvent(Long eventId, Long userId, int attempts) throws Exception {
+        String payload = objectMapper.writeValueAsString(Map.of(
+                "user_id", userId,
+                "cctv_id", 3,
+                "anomalyType", "절도 감지",
+                "videoUrl", "https://bucket.s3.amazonaws.com/clip.mp4",
+                "timestamp", "2026-10-17T10:00:00"));
+        return AnomalyEvent.builder()
+                .eventId(eventId)
+                .payload(payload)
+                .stage(AnomalyEventStage.PERSIST)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now().minusSeconds(1))
+                .leaseToken("lease")
+                .build();
+    }
+
+    // 제출한 작업을 호출 스레드에서 바로 실행
+    private static final class CallerRunsExecutor extends ThreadPoolExecutor {
+
+        CallerRunsExecutor() {
+            super(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(10));
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    }
+}
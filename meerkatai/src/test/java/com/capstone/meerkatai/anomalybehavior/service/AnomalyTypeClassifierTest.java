@@ -0,0 +1,42 @@
+package com.capstone.meerkatai.anomalybehavior.service;
+
+import com.capstone.meerkatai.anomalybehavior.entity.AnomalyBehaviorType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link AnomalyTypeClassifier} 유형 분류 단위 테스트
+ */
+class AnomalyTypeClassifierTest {
+
+    private final AnomalyTypeClassifier classifier = new AnomalyTypeClassifier();
+
+    @Test
+    void 모든_유형_키워드를_해당_코드로_분류한다() {
+        for (AnomalyBehaviorType type : AnomalyBehaviorType.values()) {
+            assertThat(classifier.classify(type.getKeyword() + " 감지")).isEqualTo(type);
+            assertThat(classifier.classifyCode(type.getKeyword())).isEqualTo(type.getCode());
+        }
+    }
+
+    @Test
+    void 키워드가_문장_중간에_있어도_분류한다() {
+        assertThat(classifier.classify("CCTV 3번 폭행 의심 상황")).isEqualTo(AnomalyBehaviorType.TYPE7);
+    }
+
+    @Test
+    void 키워드가_여러_개면_가장_앞에_나온_유형을_쓴다() {
+        assertThat(classifier.classify("절도 후 방화")).isEqualTo(AnomalyBehaviorType.TYPE6);
+        assertThat(classifier.classify("방화 후 절도")).isEqualTo(AnomalyBehaviorType.TYPE3);
+    }
+
+    @Test
+    void 키워드가_없거나_비어_있으면_null을_반환한다() {
+        assertThat(classifier.classify("배회")).isNull();
+        assertThat(classifier.classifyCode("unknown")).isNull();
+        assertThat(classifier.classify("")).isNull();
+        assertThat(classifier.classify(null)).isNull();
+        assertThat(classifier.classifyCode(null)).isNull();
+    }
+}
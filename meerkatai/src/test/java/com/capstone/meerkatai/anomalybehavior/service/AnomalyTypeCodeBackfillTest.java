@@ -0,0 +1,92 @@
+package com.capstone.meerkatai.anomalybehavior.service;
+
+import com.capstone.meerkatai.anomalybehavior.entity.AnomalyTypeCodeBackfillCheckpoint;
+import com.capstone.meerkatai.anomalybehavior.repository.AnomalyTypeCodeBackfillCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link AnomalyTypeCodeBackfill} 분류 반영과 진행 위치(checkpoint) 단위 테스트
+ */
+@ExtendWith(MockitoExtension.class)
+class AnomalyTypeCodeBackfillTest {
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AnomalyTypeCodeBackfillCheckpointRepository checkpointRepository;
+
+    private AnomalyTypeCodeBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        backfill = new AnomalyTypeCodeBackfill(jdbcTemplate, new AnomalyTypeClassifier(), checkpointRepository);
+    }
+
+    @Test
+    void 분류되는_행만_갱신하고_확인한_마지막_ID를_기록한다() {
+        when(checkpointRepository.findById("anomaly-type-code")).thenReturn(Optional.empty());
+        doReturn(rows(new Object[]{11L, "절도 감지"}, new Object[]{12L, "배회"}))
+                .when(jdbcTemplate).query(anyString(), any(RowMapper.class), eq(0L), eq(CHUNK_SIZE));
+        doReturn(List.of())
+                .when(jdbcTemplate).query(anyString(), any(RowMapper.class), eq(12L), eq(CHUNK_SIZE));
+
+        backfill.backfill();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), updates.capture());
+        assertThat(updates.getValue()).containsExactly(new Object[]{6, 11L});
+
+        ArgumentCaptor<AnomalyTypeCodeBackfillCheckpoint> saved =
+                ArgumentCaptor.forClass(AnomalyTypeCodeBackfillCheckpoint.class);
+        verify(checkpointRepository).save(saved.capture());
+        assertThat(saved.getValue().getLastAnomalyId()).isEqualTo(12L);
+    }
+
+    @Test
+    void 저장된_진행_위치부터_이어서_확인한다() {
+        AnomalyTypeCodeBackfillCheckpoint checkpoint = AnomalyTypeCodeBackfillCheckpoint.builder()
+                .jobName("anomaly-type-code")
+                .lastAnomalyId(12L)
+                .build();
+        when(checkpointRepository.findById("anomaly-type-code")).thenReturn(Optional.of(checkpoint));
+        doReturn(List.of())
+                .when(jdbcTemplate).query(anyString(), any(RowMapper.class), eq(12L), eq(CHUNK_SIZE));
+
+        backfill.backfill();
+
+        // 분류되지 않아 NULL로 남은 이전 행(12 이하)은 다시 읽지 않음
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), eq(0L), eq(CHUNK_SIZE));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(checkpointRepository, never()).save(any());
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(Arrays.asList(rows));
+    }
+}
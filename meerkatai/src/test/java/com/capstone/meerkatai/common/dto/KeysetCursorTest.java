@@ -0,0 +1,61 @@
+package com.capstone.meerkatai.common.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link KeysetCursor} 인코딩/디코딩 단위 테스트
+ */
+class KeysetCursorTest {
+
+    @Test
+    void 인코딩한_커서를_그대로_디코딩한다() {
+        LocalDateTime time = LocalDateTime.of(2026, 10, 17, 9, 30, 15, 123_000_000);
+        KeysetCursor cursor = new KeysetCursor(time, 42L);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertThat(decoded.getTime()).isEqualTo(time);
+        assertThat(decoded.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void 인코딩_결과는_URL에_그대로_쓸_수_있다() {
+        String encoded = new KeysetCursor(LocalDateTime.of(2026, 1, 1, 0, 0), Long.MAX_VALUE).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void 비어_있는_커서는_첫_페이지로_본다() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode("")).isNull();
+        assertThat(KeysetCursor.decode("   ")).isNull();
+    }
+
+    @Test
+    void Base64가_아닌_커서는_거부한다() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor!"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void 구분자나_값_형식이_잘못된_커서는_거부한다() {
+        assertThatThrownBy(() -> KeysetCursor.decode(encodeRaw("2026-10-17T09:30:15")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encodeRaw("yesterday|42")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encodeRaw("2026-10-17T09:30:15|abc")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,132 @@
+package com.capstone.meerkatai.dashboard.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link DashboardCounterBuffer} flush, 실패 시 복구, 반영 불가 키 폐기 단위 테스트
+ */
+@ExtendWith(MockitoExtension.class)
+class DashboardCounterBufferTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 17);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DashboardCounterBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new DashboardCounterBuffer(jdbcTemplate, transactionManager);
+        buffer.init();
+    }
+
+    @Test
+    void 같은_키의_증가분은_하나로_합쳐_반영한다() {
+        buffer.increment(1L, DAY, 6);
+        buffer.increment(1L, DAY, 6);
+        buffer.increment(1L, DAY, 7);
+        assertThat(pending(1L)).isEqualTo(Map.of(DAY, Map.of(6, 2L, 7, 1L)));
+
+        buffer.flush();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        assertThat(pending(1L)).isEmpty();
+    }
+
+    @Test
+    void 비어_있으면_DB를_호출하지_않는다() {
+        buffer.flush();
+
+        verify(transactionManager, never()).getTransaction(any());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+    }
+
+    @Test
+    void 트랜잭션을_시작하지_못하면_증가분을_모두_되돌린다() {
+        buffer.increment(1L, DAY, 6);
+        buffer.increment(2L, DAY, 3);
+        when(transactionManager.getTransaction(any())).thenThrow(new CannotCreateTransactionException("연결 없음"));
+
+        buffer.flush();
+
+        assertThat(pending(1L)).isEqualTo(Map.of(DAY, Map.of(6, 1L)));
+        assertThat(pending(2L)).isEqualTo(Map.of(DAY, Map.of(3, 1L)));
+    }
+
+    @Test
+    void 되돌린_증가분에_이후_증가분이_더해진다() {
+        buffer.increment(1L, DAY, 6);
+        when(transactionManager.getTransaction(any())).thenThrow(new CannotCreateTransactionException("연결 없음"));
+        buffer.flush();
+
+        buffer.increment(1L, DAY, 6);
+
+        assertThat(pending(1L)).isEqualTo(Map.of(DAY, Map.of(6, 2L)));
+    }
+
+    @Test
+    void 일괄_반영이_실패하면_키별로_반영하고_무결성_위반_키만_버린다() {
+        buffer.increment(1L, DAY, 6);
+        buffer.increment(2L, DAY, 3);
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("FK 위반"));
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("FK 위반"))
+                .thenReturn(1);
+
+        buffer.flush();
+
+        verify(jdbcTemplate, times(2)).update(anyString(), any(PreparedStatementSetter.class));
+        assertThat(pending(1L)).isEmpty();
+        assertThat(pending(2L)).isEmpty();
+    }
+
+    @Test
+    void 키별_반영_중_연결_오류가_나면_남은_키를_모두_되돌린다() {
+        buffer.increment(1L, DAY, 6);
+        buffer.increment(2L, DAY, 3);
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new TransientDataAccessResourceException("시간 초과"));
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenThrow(new CannotGetJdbcConnectionException("연결 없음"));
+
+        buffer.flush();
+
+        // 첫 키에서 실패하면 나머지 키는 시도하지 않고 모두 되돌림
+        verify(jdbcTemplate, times(1)).update(anyString(), any(PreparedStatementSetter.class));
+        assertThat(pending(1L)).isEqualTo(Map.of(DAY, Map.of(6, 1L)));
+        assertThat(pending(2L)).isEqualTo(Map.of(DAY, Map.of(3, 1L)));
+    }
+
+    // 아직 DB에 반영되지 않은 사용자의 증가분
+    private Map<LocalDate, Map<Integer, Long>> pending(Long userId) {
+        return buffer.readConsistent(userId, DAY, DAY, () -> null).deltas();
+    }
+}
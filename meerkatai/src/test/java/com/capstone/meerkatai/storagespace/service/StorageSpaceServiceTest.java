@@ -0,0 +1,54 @@
+package com.capstone.meerkatai.storagespace.service;
+
+import com.capstone.meerkatai.storagespace.repository.StorageSpaceRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link StorageSpaceService} 사용량 증감 단위 테스트
+ */
+@ExtendWith(MockitoExtension.class)
+class StorageSpaceServiceTest {
+
+    @Mock
+    private StorageSpaceRepository storageSpaceRepository;
+
+    @InjectMocks
+    private StorageSpaceService storageSpaceService;
+
+    @Test
+    void 저장공간_행이_없어도_예외없이_넘어간다() {
+        when(storageSpaceRepository.addUsedSpace(1L, 1024L)).thenReturn(0);
+
+        assertThatCode(() -> storageSpaceService.addUsedSpace(1L, 1024L)).doesNotThrowAnyException();
+        verify(storageSpaceRepository).addUsedSpace(1L, 1024L);
+    }
+
+    @Test
+    void 묶음_반영중_행이_없는_사용자가_있어도_나머지_사용자는_반영한다() {
+        when(storageSpaceRepository.addUsedSpace(1L, 100L)).thenReturn(0);
+        when(storageSpaceRepository.addUsedSpace(2L, 200L)).thenReturn(1);
+
+        assertThatCode(() -> storageSpaceService.addUsedSpace(Map.of(1L, 100L, 2L, 200L)))
+                .doesNotThrowAnyException();
+        verify(storageSpaceRepository).addUsedSpace(2L, 200L);
+    }
+
+    @Test
+    void 증감량이_0이면_UPDATE하지_않는다() {
+        storageSpaceService.addUsedSpace(1L, 0L);
+
+        verify(storageSpaceRepository, never()).addUsedSpace(anyLong(), anyLong());
+    }
+}
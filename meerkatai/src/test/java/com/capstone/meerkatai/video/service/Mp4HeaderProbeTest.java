@@ -0,0 +1,130 @@
+package com.capstone.meerkatai.video.service;
+
+import com.capstone.meerkatai.global.service.S3Service;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link Mp4HeaderProbe} 단위 테스트 (합성한 ftyp/moov/mvhd 바이트 사용)
+ */
+@ExtendWith(MockitoExtension.class)
+class Mp4HeaderProbeTest {
+
+    private static final String KEY = "videos/test.mp4";
+
+    @Mock
+    private S3Service s3Service;
+
+    private Mp4HeaderProbe probe;
+
+    @BeforeEach
+    void setUp() {
+        probe = new Mp4HeaderProbe(s3Service);
+        ReflectionTestUtils.setField(probe, "maxMoovBytes", 8 * 1024 * 1024);
+    }
+
+    @Test
+    void mvhd_v0_재생시간을_계산한다() throws Exception {
+        byte[] file = concat(ftyp(), box("moov", mvhdV0(1000, 12_500)));
+        serve(file);
+
+        Mp4HeaderProbe.Mp4Info info = probe.probe(KEY, file.length);
+
+        assertThat(info).isNotNull();
+        assertThat(info.durationSeconds()).isEqualTo(12.5);
+        assertThat(info.codec()).isNull();
+        assertThat(info.bitrate()).isEqualTo((long) (file.length * 8 / 12.5));
+    }
+
+    @Test
+    void mvhd_v1_64비트_재생시간을_계산한다() throws Exception {
+        long duration = 90_000L * 3_600 * 20; // 32비트를 넘는 값 (20시간)
+        byte[] file = concat(ftyp(), box("moov", mvhdV1(90_000, duration)));
+        serve(file);
+
+        Mp4HeaderProbe.Mp4Info info = probe.probe(KEY, file.length);
+
+        assertThat(info).isNotNull();
+        assertThat(info.durationSeconds()).isEqualTo(72_000.0);
+    }
+
+    @Test
+    void moov_뒤쪽이_잘린_파일은_null을_반환한다() throws Exception {
+        byte[] complete = concat(ftyp(), box("moov", mvhdV0(1000, 5_000)));
+        byte[] file = Arrays.copyOf(complete, complete.length - 10);
+        serve(file);
+
+        assertThat(probe.probe(KEY, 0)).isNull();
+    }
+
+    @Test
+    void moov가_없으면_null을_반환한다() throws Exception {
+        byte[] file = concat(ftyp(), box("mdat", new byte[256]));
+        serve(file);
+
+        assertThat(probe.probe(KEY, file.length)).isNull();
+    }
+
+    // Range GET처럼 요청 구간을 파일 길이에 맞춰 잘라 반환
+    private void serve(byte[] file) throws Exception {
+        when(s3Service.readRange(eq(KEY), anyLong(), anyLong())).thenAnswer(invocation -> {
+            long start = invocation.getArgument(1);
+            long end = invocation.getArgument(2);
+            int from = (int) Math.min(start, file.length);
+            int to = (int) Math.min(end + 1, file.length);
+            return Arrays.copyOfRange(file, from, to);
+        });
+    }
+
+    private static byte[] ftyp() {
+        return box("ftyp", concat(ascii("isom"), new byte[4], ascii("isom"), ascii("mp41")));
+    }
+
+    // version 0: version/flags 4 + creation 4 + modification 4 + timescale 4 + duration 4 + 나머지
+    private static byte[] mvhdV0(int timescale, int duration) {
+        ByteBuffer payload = ByteBuffer.allocate(100);
+        payload.putInt(0).putInt(0).putInt(0).putInt(timescale).putInt(duration);
+        return box("mvhd", payload.array());
+    }
+
+    // version 1: version/flags 4 + creation 8 + modification 8 + timescale 4 + duration 8 + 나머지
+    private static byte[] mvhdV1(int timescale, long duration) {
+        ByteBuffer payload = ByteBuffer.allocate(112);
+        payload.putInt(1 << 24).putLong(0).putLong(0).putInt(timescale).putLong(duration);
+        return box("mvhd", payload.array());
+    }
+
+    private static byte[] box(String type, byte[] payload) {
+        return ByteBuffer.allocate(8 + payload.length)
+                .putInt(8 + payload.length)
+                .put(ascii(type))
+                .put(payload)
+                .array();
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}